@@ -0,0 +1,99 @@
+/* *****************************************************************************
+ *  Name:    Nick Padmanabhan
+ *  NetID:   ntyp
+ *  Precept: P07
+ *
+ *  Description:  The queries of a range-max segment tree over n weights,
+ *  written once for every storage: tree[n + i] = i, and tree[i] is the
+ *  heavier of its two children. Subclasses supply only the loads of a
+ *  weight and a tree node, from arrays (RangeMaxIndex) or from buffers
+ *  such as a memory-mapped file (MappedRangeMaxIndex).
+ *
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.MaxPQ;
+
+public abstract class AbstractRangeMaxIndex {
+
+    private final int n; // number of weights
+
+    // creates an index over n weights
+    protected AbstractRangeMaxIndex(int n) {
+        this.n = n;
+    }
+
+    // returns weight i
+    protected abstract long weight(int i);
+
+    // returns tree node i, for 1 <= i < 2n
+    protected abstract int node(int i);
+
+    // Returns the index of the heaviest entry in [lo, hi]; ties go to the
+    // smaller index.
+    public int argmax(int lo, int hi) {
+        checkRange(lo, hi);
+
+        int best = lo;
+        for (lo += n, hi += n + 1; lo < hi; lo /= 2, hi /= 2) {
+            if ((lo & 1) == 1) best = heavier(best, node(lo++));
+            if ((hi & 1) == 1) best = heavier(best, node(--hi));
+        }
+        return best;
+    }
+
+    // Returns the indices of the k heaviest entries in [lo, hi], heaviest
+    // first (ties in index order), in O(k log n) time.
+    public int[] top(int lo, int hi, int k) {
+        checkRange(lo, hi);
+        if (k < 0) throw new IllegalArgumentException("k is negative!");
+
+        int size = (int) Math.min(k, (long) hi - lo + 1);
+        int[] result = new int[size];
+        if (size == 0) return result;
+
+        // each range in pq is keyed by its heaviest entry
+        MaxPQ<Range> pq = new MaxPQ<Range>();
+        pq.insert(new Range(lo, hi));
+        for (int i = 0; i < size; i++) {
+            Range r = pq.delMax();
+            result[i] = r.max;
+            if (r.lo < r.max) pq.insert(new Range(r.lo, r.max - 1));
+            if (r.max < r.hi) pq.insert(new Range(r.max + 1, r.hi));
+        }
+        return result;
+    }
+
+    // returns whichever of i and j is heavier, or the smaller on a tie
+    protected final int heavier(int i, int j) {
+        long wi = weight(i);
+        long wj = weight(j);
+        if (wi != wj) return wi > wj ? i : j;
+        return Math.min(i, j);
+    }
+
+    // checks that [lo, hi] is a non-empty range of valid indices
+    private void checkRange(int lo, int hi) {
+        if (lo < 0 || hi >= n || lo > hi)
+            throw new IllegalArgumentException("Invalid range!");
+    }
+
+    // a range of indices and the index of its heaviest entry
+    private class Range implements Comparable<Range> {
+        private final int lo; // first index
+        private final int hi; // last index
+        private final int max; // index of the heaviest entry
+
+        // creates the range [lo, hi]
+        public Range(int lo, int hi) {
+            this.lo = lo;
+            this.hi = hi;
+            this.max = argmax(lo, hi);
+        }
+
+        // compares ranges by their heaviest entries
+        public int compareTo(Range that) {
+            if (max == that.max) return 0;
+            return heavier(max, that.max) == max ? 1 : -1;
+        }
+    }
+}
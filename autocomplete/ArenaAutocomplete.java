@@ -0,0 +1,121 @@
+/* *****************************************************************************
+ *  Name:    Nick Padmanabhan
+ *  NetID:   ntyp
+ *  Precept: P07
+ *
+ *  Description:  The queries of the Autocomplete API over arena storage,
+ *  written once for every storage: n queries back to back in sorted order,
+ *  query i at arena[offset(i)..offset(i + 1)), with a range-max index over
+ *  their weights. Subclasses supply only the loads, from arrays
+ *  (CompactAutocomplete) or from a memory-mapped file (MappedAutocomplete).
+ *
+ **************************************************************************** */
+
+public abstract class ArenaAutocomplete {
+
+    // returns the number of terms
+    abstract int size();
+
+    // returns the start of query i in the arena, for 0 <= i <= size()
+    abstract int offset(int i);
+
+    // returns char p of the arena
+    abstract char charAt(int p);
+
+    // returns the weight of query i
+    abstract long weight(int i);
+
+    // returns the range-max index over the weights
+    abstract AbstractRangeMaxIndex weightIndex();
+
+    // creates the Term at index i
+    Term term(int i) {
+        int p = offset(i);
+        char[] query = new char[offset(i + 1) - p];
+        for (int d = 0; d < query.length; d++) query[d] = charAt(p + d);
+        return new Term(new String(query), weight(i));
+    }
+
+    // compares the first r characters of query i with the prefix of length r
+    private int comparePrefix(int i, String prefix) {
+        int p = offset(i);
+        int length = offset(i + 1) - p;
+        int r = prefix.length();
+        for (int d = 0; d < Math.min(length, r); d++) {
+            char c1 = charAt(p + d);
+            char c2 = prefix.charAt(d);
+            if (c1 != c2) return c1 - c2;
+        }
+        return length < r ? -1 : 0;
+    }
+
+    // returns the first index whose query starts with prefix, or -1
+    private int firstIndexOf(String prefix) {
+        int index = -1;
+        int lo = 0;
+        int hi = size() - 1;
+        while (lo <= hi) {
+            int mid = lo + (hi - lo) / 2;
+            int compare = comparePrefix(mid, prefix);
+            if (compare < 0) lo = mid + 1;
+            else if (compare > 0) hi = mid - 1;
+            else {
+                index = mid;
+                hi = mid - 1;
+            }
+        }
+        return index;
+    }
+
+    // returns the last index whose query starts with prefix, or -1
+    private int lastIndexOf(String prefix) {
+        int index = -1;
+        int lo = 0;
+        int hi = size() - 1;
+        while (lo <= hi) {
+            int mid = lo + (hi - lo) / 2;
+            int compare = comparePrefix(mid, prefix);
+            if (compare < 0) lo = mid + 1;
+            else if (compare > 0) hi = mid - 1;
+            else {
+                index = mid;
+                lo = mid + 1;
+            }
+        }
+        return index;
+    }
+
+    // Returns all terms that start with the given prefix, in descending order
+    // of weight.
+    public Term[] allMatches(String prefix) {
+        return topMatches(prefix, numberOfMatches(prefix));
+    }
+
+    // Returns the k terms of largest weight that start with the given
+    // prefix, in descending order of weight.
+    public Term[] topMatches(String prefix, int k) {
+        if (prefix == null)
+            throw new IllegalArgumentException("prefix is null!");
+        if (k < 0)
+            throw new IllegalArgumentException("k is negative!");
+
+        int lo = firstIndexOf(prefix);
+        if (lo == -1 || k == 0) return new Term[0];
+        int hi = lastIndexOf(prefix);
+
+        int[] top = weightIndex().top(lo, hi, k);
+        Term[] matches = new Term[top.length];
+        for (int i = 0; i < top.length; i++) matches[i] = term(top[i]);
+        return matches;
+    }
+
+    // Returns the number of terms that start with the given prefix.
+    public int numberOfMatches(String prefix) {
+        if (prefix == null)
+            throw new IllegalArgumentException("prefix is null!");
+
+        int lo = firstIndexOf(prefix);
+        if (lo == -1) return 0;
+        return lastIndexOf(prefix) - lo + 1;
+    }
+}
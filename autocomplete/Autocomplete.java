@@ -4,22 +4,40 @@
  *  Precept: P07
  *
  *  Description:  Implements the Autocomplete data type, which uses Term and
- *  BinarySearchDeluxe to provide autocomplete functionality.
+ *  BinarySearchDeluxe to provide autocomplete functionality. Instances are
+ *  immutable after construction, so one index can serve queries from many
+ *  threads at once. With -Dautocomplete.metrics=true, the latency of each
+ *  stage of a query (the binary searches, the copy and the sort in
+ *  allMatches(), the top-k expansion) is recorded in a LatencyHistogram.
  *
  **************************************************************************** */
 
-import edu.princeton.cs.algs4.In;
 import edu.princeton.cs.algs4.StdIn;
 import edu.princeton.cs.algs4.StdOut;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
-public class Autocomplete {
+public class Autocomplete implements AutocompleteShard {
+
+    // is per-stage latency recording on? a static final flag, so that the
+    // JIT drops the timing code entirely when it is off
+    public static final boolean METRICS = Boolean.getBoolean("autocomplete.metrics");
+
+    private static final LatencyHistogram SEARCH = new LatencyHistogram(); // both searches
+    private static final LatencyHistogram COPY = new LatencyHistogram(); // copy of matches
+    private static final LatencyHistogram SORT = new LatencyHistogram(); // sort by weight
+    private static final LatencyHistogram TOP = new LatencyHistogram(); // top-k expansion
 
     private final Term[] sortedTerms; // stores the sorted terms array
-    private int lo; // stores leftmost value of a prefix match
-    private int hi; // stores rightmost value of a prefix match
+    private final RangeMaxIndex weightIndex; // range-max index over the weights
 
     // Initializes the data structure from the given array of terms.
     public Autocomplete(Term[] terms) {
@@ -35,8 +53,14 @@ public class Autocomplete {
             sortedTerms[i] = terms[i];
         }
 
-        // sort the copied Term array lexographically
-        Arrays.sort(sortedTerms);
+        // sort the copied Term array lexographically, on all cores
+        Arrays.parallelSort(sortedTerms);
+
+        // index the weights in lexicographic order for topMatches()
+        long[] weights = new long[sortedTerms.length];
+        for (int i = 0; i < sortedTerms.length; i++)
+            weights[i] = sortedTerms[i].weight();
+        weightIndex = new RangeMaxIndex(weights);
     }
 
     // Returns all terms that start with the given prefix, in descending order
@@ -45,74 +69,303 @@ public class Autocomplete {
         if (prefix == null)
             throw new IllegalArgumentException("prefix is null!");
 
-        /**
-         * Find the number of Terms that begin with a given prefix.
-         * numberOfMatches() stores the leftmost and rightmost indices as
-         * instance variables lo and hi, respectively, so that allMatches()
-         * can retrieve the two values.
-         */
-        int n = numberOfMatches(prefix);
-
-        if (n == 0) return new Term[0]; // no matches
-        Term[] prefixMatches = new Term[n]; // positive number of matches
+        // find the leftmost and rightmost indices of the matching Terms
+        int[] range = range(prefix);
+        if (range == null) return new Term[0]; // no matches
+        int lo = range[0];
+        int hi = range[1];
+        long start = METRICS ? System.nanoTime() : 0;
+        Term[] prefixMatches = new Term[hi - lo + 1]; // positive number of matches
 
         // copy matches from sortedTerms for reverse weight sorting
         for (int i = lo; i <= hi; i++)
             prefixMatches[i - lo] = sortedTerms[i];
+        if (METRICS) start = record(COPY, start);
 
         // sort the matching prefix array by weight, reversed
         Comparator<Term> cmp = Term.byReverseWeightOrder();
         Arrays.sort(prefixMatches, cmp);
+        if (METRICS) record(SORT, start);
         return prefixMatches;
     }
 
+    // Returns the k terms of largest weight that start with the given
+    // prefix, in descending order of weight, without sorting all matches.
+    public Term[] topMatches(String prefix, int k) {
+        if (prefix == null)
+            throw new IllegalArgumentException("prefix is null!");
+        if (k < 0)
+            throw new IllegalArgumentException("k is negative!");
+
+        int[] range = range(prefix);
+        if (range == null || k == 0) return new Term[0];
+
+        return top(range[0], range[1], k);
+    }
+
+    // returns the number of terms in the index
+    int size() {
+        return sortedTerms.length;
+    }
+
+    // returns the sorted terms, which must not be modified
+    Term[] terms() {
+        return sortedTerms;
+    }
+
+    // does the index contain a term with exactly this query?
+    boolean contains(String query) {
+        return Arrays.binarySearch(sortedTerms, new Term(query, 0)) >= 0;
+    }
+
+    // returns the k heaviest terms of sortedTerms[lo..hi], heaviest first
+    Term[] top(int lo, int hi, int k) {
+        long start = METRICS ? System.nanoTime() : 0;
+
+        // expand the heaviest matches from the range-max index
+        int[] top = weightIndex.top(lo, hi, k);
+        Term[] matches = new Term[top.length];
+        for (int i = 0; i < top.length; i++)
+            matches[i] = sortedTerms[top[i]];
+        if (METRICS) record(TOP, start);
+        return matches;
+    }
+
     // Returns the number of terms that start with the given prefix.
     public int numberOfMatches(String prefix) {
         if (prefix == null)
             throw new IllegalArgumentException("prefix is null!");
 
-        int r = prefix.length();
-        Term temp = new Term(prefix, 1); // dummy Term containing prefix
+        // find the leftmost and rightmost matches without allocating; both
+        // searches start from the whole array, so the second one probes the
+        // same (now cached) midpoints as the first until they diverge
+        long start = METRICS ? System.nanoTime() : 0;
+        int lo = BinarySearchDeluxe.firstIndexOf(sortedTerms, prefix);
+        int n = lo == -1 ? 0 : BinarySearchDeluxe.lastIndexOf(sortedTerms, prefix) - lo + 1;
+        if (METRICS) record(SEARCH, start);
+
+        // return the number of matches
+        return n;
+    }
 
-        Comparator<Term> cmp = Term.byPrefixOrder(r);
+    // records the time since start in the histogram and returns the time now
+    private static long record(LatencyHistogram histogram, long start) {
+        long now = System.nanoTime();
+        histogram.record(now - start);
+        return now;
+    }
 
-        // find the leftmost matching index in the Term array
-        lo = BinarySearchDeluxe.firstIndexOf(sortedTerms, temp, cmp);
+    // Returns a snapshot of the latencies (in ns) of the binary searches of
+    // numberOfMatches() and of the other queries; empty unless METRICS is on.
+    public static LatencyHistogram searchLatency() {
+        return SEARCH.snapshot();
+    }
 
-        // nothing found --> return 0 matches
-        if (lo == -1) return 0;
+    // Returns a snapshot of the latencies of the copy in allMatches().
+    public static LatencyHistogram copyLatency() {
+        return COPY.snapshot();
+    }
 
-        // find the rightmost matching index in the Term array
-        hi = BinarySearchDeluxe.lastIndexOf(sortedTerms, temp, cmp);
+    // Returns a snapshot of the latencies of the sort in allMatches().
+    public static LatencyHistogram sortLatency() {
+        return SORT.snapshot();
+    }
 
-        // return the number of matches
-        return hi - lo + 1;
+    // Returns a snapshot of the latencies of the top-k expansion in
+    // topMatches().
+    public static LatencyHistogram topLatency() {
+        return TOP.snapshot();
+    }
+
+    // Clears all of the stage histograms.
+    public static void resetLatencies() {
+        SEARCH.reset();
+        COPY.reset();
+        SORT.reset();
+        TOP.reset();
+    }
+
+    // Returns the number of terms that start with each of the given
+    // prefixes. Duplicates are answered once, and the distinct prefixes are
+    // sorted and found in one sweep over the sorted terms.
+    public int[] numberOfMatches(String[] prefixes) {
+        return numberOfMatches(prefixes, 1);
+    }
+
+    // Returns the number of matches of each prefix, splitting the sorted
+    // prefixes across the given number of threads.
+    public int[] numberOfMatches(String[] prefixes, int threads) {
+        int[] counts = new int[checkBatch(prefixes, threads)];
+        batch(prefixes, 0, counts, null, threads);
+        return counts;
+    }
+
+    // Returns the k heaviest matches of each of the given prefixes, in
+    // descending order of weight, found in one sweep over the sorted terms.
+    public Term[][] topMatches(String[] prefixes, int k) {
+        return topMatches(prefixes, k, 1);
+    }
+
+    // Returns the k heaviest matches of each prefix, splitting the sorted
+    // prefixes across the given number of threads.
+    public Term[][] topMatches(String[] prefixes, int k, int threads) {
+        if (k < 0)
+            throw new IllegalArgumentException("k is negative!");
+
+        Term[][] tops = new Term[checkBatch(prefixes, threads)][];
+        batch(prefixes, k, new int[prefixes.length], tops, threads);
+        return tops;
+    }
+
+    // checks the arguments of a batch query and returns the batch size
+    private static int checkBatch(String[] prefixes, int threads) {
+        if (prefixes == null)
+            throw new IllegalArgumentException("prefixes is null!");
+        for (String prefix : prefixes)
+            if (prefix == null)
+                throw new IllegalArgumentException("a prefix is null!");
+        if (threads <= 0)
+            throw new IllegalArgumentException("threads must be positive!");
+        return prefixes.length;
+    }
+
+    // collapses duplicate prefixes and sorts the distinct ones, sweeps up
+    // to threads slices of them over sortedTerms, then fills in counts (and
+    // tops, unless it is null) for every prefix
+    private void batch(String[] prefixes, int k, int[] counts, Term[][] tops, int threads) {
+        HashMap<String, Integer> position = new HashMap<String, Integer>();
+        for (String prefix : prefixes) position.put(prefix, 0);
+        String[] distinct = position.keySet().toArray(new String[0]);
+        Arrays.sort(distinct);
+        for (int j = 0; j < distinct.length; j++) position.put(distinct[j], j);
+
+        int[] distinctCounts = new int[distinct.length];
+        Term[][] distinctTops = tops == null ? null : new Term[distinct.length][];
+        int parts = Math.max(1, Math.min(threads, distinct.length));
+        if (parts == 1) sweep(distinct, 0, distinct.length, k, distinctCounts, distinctTops);
+        else {
+            List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+            for (int p = 0; p < parts; p++) {
+                int from = (int) ((long) distinct.length * p / parts);
+                int to = (int) ((long) distinct.length * (p + 1) / parts);
+                tasks.add(() -> {
+                    sweep(distinct, from, to, k, distinctCounts, distinctTops);
+                    return null;
+                });
+            }
+            ForkJoinPool pool = new ForkJoinPool(parts);
+            try {
+                for (Future<Void> task : pool.invokeAll(tasks)) task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("interrupted during a batch query", e);
+            } catch (ExecutionException e) {
+                // rethrow unchecked causes as they are, as a single query would
+                if (e.getCause() instanceof RuntimeException)
+                    throw (RuntimeException) e.getCause();
+                if (e.getCause() instanceof Error)
+                    throw (Error) e.getCause();
+                throw new IllegalStateException(e.getCause());
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        for (int i = 0; i < prefixes.length; i++) {
+            int j = position.get(prefixes[i]);
+            counts[i] = distinctCounts[j];
+            if (tops != null) tops[i] = distinctTops[j].clone();
+        }
+    }
+
+    // answers the sorted prefixes[from..to); since the first match of each
+    // prefix is at or after the first match of the one before it, each
+    // search gallops forward from there instead of starting over
+    private void sweep(String[] prefixes, int from, int to, int k,
+                       int[] counts, Term[][] tops) {
+        int cursor = 0;
+        for (int i = from; i < to; i++) {
+            cursor = gallop(cursor, prefixes[i], 0); // first term >= prefix
+            int end = gallop(cursor, prefixes[i], 1); // first term > prefix
+            counts[i] = end - cursor;
+            if (tops != null)
+                tops[i] = counts[i] == 0 || k == 0 ? new Term[0] : top(cursor, end - 1, k);
+        }
+    }
+
+    // returns the first index i >= from whose comparePrefix(prefix) is at
+    // least bound (or the number of terms), probing from + 1, from + 3,
+    // from + 7, ... before a binary search, so a nearby answer costs only a
+    // few compares
+    private int gallop(int from, String prefix, int bound) {
+        int n = sortedTerms.length;
+        int lo = from; // every index in [from, lo) is below bound
+        int hi = from; // next probe
+        int step = 1;
+        while (hi < n && sortedTerms[hi].comparePrefix(prefix) < bound) {
+            lo = hi + 1;
+            hi = (int) Math.min(n, (long) hi + step);
+            step *= 2;
+        }
+
+        // the answer is in [lo, hi]
+        while (lo < hi) {
+            int mid = lo + (hi - lo) / 2;
+            if (sortedTerms[mid].comparePrefix(prefix) < bound) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    // returns the leftmost and rightmost indices of the terms that start with
+    // the given prefix, or null if there are none; kept in locals rather than
+    // fields so that concurrent queries cannot see each other's range
+    private int[] range(String prefix) {
+        return range(prefix, 0, sortedTerms.length - 1);
+    }
+
+    // returns the range of the terms that start with the given prefix,
+    // searching only sortedTerms[lo..hi] (for example, the range of a shorter
+    // prefix), or null if there are none
+    int[] range(String prefix, int lo, int hi) {
+        long start = METRICS ? System.nanoTime() : 0;
+
+        // find the leftmost matching index in the Term array
+        int first = BinarySearchDeluxe.firstIndexOf(sortedTerms, prefix, lo, hi);
+
+        // nothing found --> no range
+        if (first == -1) {
+            if (METRICS) record(SEARCH, start);
+            return null;
+        }
+
+        // find the rightmost matching index in the Term array, over the same
+        // range so that its first probes hit the cache
+        int last = BinarySearchDeluxe.lastIndexOf(sortedTerms, prefix, lo, hi);
+        if (METRICS) record(SEARCH, start);
+        return new int[] { first, last };
     }
 
     // unit testing (required)
     public static void main(String[] args) {
-        // read in the terms from a file
+        // read in the terms from a file, in parallel
         String filename = args[0];
-        In in = new In(filename);
-        int n = in.readInt();
-        Term[] terms = new Term[n];
-        for (int i = 0; i < n; i++) {
-            long weight = in.readLong();           // read the next weight
-            in.readChar();                         // scan past the tab
-            String query = in.readLine();          // read the next query
-            terms[i] = new Term(query, weight);    // construct the term
-        }
+        Term[] terms = TermLoader.load(filename);
 
         // read in queries from standard input and print the top k matching terms
         int k = Integer.parseInt(args[1]);
         Autocomplete autocomplete = new Autocomplete(terms);
         while (StdIn.hasNextLine()) {
             String prefix = StdIn.readLine();
-            Term[] results = autocomplete.allMatches(prefix);
+            Term[] results = autocomplete.topMatches(prefix, k);
             StdOut.printf("%d matches\n", autocomplete.numberOfMatches(prefix));
-            for (int i = 0; i < Math.min(k, results.length); i++)
+            for (int i = 0; i < results.length; i++)
                 StdOut.println(results[i]);
         }
+        if (METRICS) {
+            StdOut.println("search " + searchLatency());
+            StdOut.println("top    " + topLatency());
+        }
     }
 
 }
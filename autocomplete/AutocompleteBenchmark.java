@@ -0,0 +1,113 @@
+/* *****************************************************************************
+ *  Name:    Nick Padmanabhan
+ *  NetID:   ntyp
+ *  Precept: P07
+ *
+ *  Description:  Compares the Autocomplete engines on build time, heap
+ *  footprint and topMatches() latency (p50 / p99 / max) for random prefixes
+ *  of the dictionary's own queries. MappedAutocomplete's build time is the
+ *  time to map a prebuilt index file written beforehand. The last line
+ *  compares answering the prefixes one by one with one batch call.
+ *
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdOut;
+import edu.princeton.cs.algs4.Stopwatch;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+public class AutocompleteBenchmark {
+
+    private static final int MAX_PREFIX = 4; // longest sampled prefix
+    private static final int WARMUP = 2; // untimed passes over the queries
+    private static final long FUZZY_BUDGET = 1000000; // fuzzy time budget (ns)
+
+    // returns the bytes currently in use on the heap, after a few GC hints
+    private static long usedMemory() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    // samples prefixes of 1 to MAX_PREFIX characters of random queries
+    public static String[] samplePrefixes(Term[] terms, int count, long seed) {
+        Random random = new Random(seed);
+        String[] prefixes = new String[count];
+        for (int i = 0; i < count; i++) {
+            String query = terms[random.nextInt(terms.length)].query();
+            int length = 1 + random.nextInt(MAX_PREFIX);
+            prefixes[i] = query.substring(0, Math.min(length, query.length()));
+        }
+        return prefixes;
+    }
+
+    // builds one engine, then times k-term queries for every prefix
+    private static <T> void bench(String name, Supplier<T> build,
+                                  BiFunction<T, String, Term[]> query,
+                                  String[] prefixes) {
+        long before = usedMemory();
+        Stopwatch s = new Stopwatch();
+        T engine = build.get();
+        double buildTime = s.elapsedTime();
+        long bytes = usedMemory() - before;
+
+        for (int pass = 0; pass < WARMUP; pass++)
+            for (String prefix : prefixes) query.apply(engine, prefix);
+
+        long[] latencies = new long[prefixes.length];
+        for (int i = 0; i < prefixes.length; i++) {
+            long start = System.nanoTime();
+            query.apply(engine, prefixes[i]);
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+
+        StdOut.printf("%-20s build = %7.3f s   heap = %7.1f MB   "
+                              + "p50 = %8.1f us   p99 = %8.1f us   max = %8.1f us\n",
+                      name, buildTime, bytes / 1e6,
+                      percentile(latencies, 0.50) / 1e3,
+                      percentile(latencies, 0.99) / 1e3,
+                      latencies[latencies.length - 1] / 1e3);
+    }
+
+    // returns the p-th percentile of sorted values
+    private static long percentile(long[] sorted, double p) {
+        int i = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(i, sorted.length - 1))];
+    }
+
+    // usage: java AutocompleteBenchmark terms.txt [queries] [k]
+    public static void main(String[] args) {
+        Term[] terms = TermLoader.load(args[0]);
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+        int k = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        String[] prefixes = samplePrefixes(terms, count, 226);
+
+        bench("Autocomplete", () -> new Autocomplete(terms),
+              (a, prefix) -> a.topMatches(prefix, k), prefixes);
+        bench("TrieAutocomplete", () -> new TrieAutocomplete(terms),
+              (a, prefix) -> a.topMatches(prefix, k), prefixes);
+        bench("TrieAutocomplete~2", () -> new TrieAutocomplete(terms),
+              (a, prefix) -> a.fuzzyMatches(prefix, 2, k, FUZZY_BUDGET), prefixes);
+        bench("CompactAutocomplete", () -> new CompactAutocomplete(terms),
+              (a, prefix) -> a.topMatches(prefix, k), prefixes);
+
+        String index = args[0] + ".index";
+        MappedAutocomplete.write(terms, index);
+        bench("MappedAutocomplete", () -> new MappedAutocomplete(index),
+              (a, prefix) -> a.topMatches(prefix, k), prefixes);
+
+        Autocomplete autocomplete = new Autocomplete(terms);
+        for (int pass = 0; pass < WARMUP; pass++) autocomplete.topMatches(prefixes, k);
+        Stopwatch s = new Stopwatch();
+        for (String prefix : prefixes) autocomplete.topMatches(prefix, k);
+        double oneByOne = s.elapsedTime();
+        s = new Stopwatch();
+        autocomplete.topMatches(prefixes, k);
+        StdOut.printf("%-20s one by one = %7.3f s   batch = %7.3f s\n", "Autocomplete batch",
+                      oneByOne, s.elapsedTime());
+    }
+}
@@ -0,0 +1,195 @@
+/* *****************************************************************************
+ *  Name:    Nick Padmanabhan
+ *  NetID:   ntyp
+ *  Precept: P07
+ *
+ *  Description:  An LRU cache in front of an Autocomplete index for
+ *  keystroke-by-keystroke queries. It remembers the [lo, hi] match range
+ *  and top-k terms of recent prefixes. When a prefix misses, the range of
+ *  its longest cached ancestor bounds the binary search, so typing one more
+ *  character only searches the parent's range. Entries are evicted least
+ *  recently used first once their estimated size exceeds a byte budget.
+ *
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdIn;
+import edu.princeton.cs.algs4.StdOut;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class AutocompleteCache {
+
+    private static final int ENTRY_BYTES = 112; // map node, Entry, key String
+    private static final int REFERENCE_BYTES = 8; // one cached Term reference
+
+    private final Autocomplete autocomplete; // shared index
+    private final long maxBytes; // memory budget for the cached entries
+    private final LinkedHashMap<String, Entry> cache; // prefix -> entry, LRU order
+    private long bytes; // estimated size of the cached entries
+    private long hits; // lookups answered by an entry for the same prefix
+    private long narrowed; // lookups searched within an ancestor's range
+    private long misses; // lookups that searched the whole index
+    private long evictions; // entries evicted to stay within the budget
+
+    // the match range and heaviest terms of one prefix
+    private static class Entry {
+        private final int lo; // first match, or -1 if there are none
+        private final int hi; // last match
+        private Term[] top; // heaviest matches, heaviest first
+
+        // creates an entry for the range [lo, hi]
+        public Entry(int lo, int hi) {
+            this.lo = lo;
+            this.hi = hi;
+            this.top = new Term[0];
+        }
+
+        // returns the number of matches
+        public int count() {
+            return lo == -1 ? 0 : hi - lo + 1;
+        }
+    }
+
+    // Creates a cache over the given index that keeps about maxBytes of
+    // entries.
+    public AutocompleteCache(Autocomplete autocomplete, long maxBytes) {
+        if (autocomplete == null)
+            throw new IllegalArgumentException("autocomplete is null!");
+        if (maxBytes <= 0)
+            throw new IllegalArgumentException("maxBytes must be positive!");
+
+        this.autocomplete = autocomplete;
+        this.maxBytes = maxBytes;
+        cache = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+    }
+
+    // Returns the number of terms that start with the given prefix.
+    public synchronized int numberOfMatches(String prefix) {
+        if (prefix == null)
+            throw new IllegalArgumentException("prefix is null!");
+
+        return lookup(prefix).count();
+    }
+
+    // Returns the k terms of largest weight that start with the given
+    // prefix, in descending order of weight.
+    public synchronized Term[] topMatches(String prefix, int k) {
+        if (prefix == null)
+            throw new IllegalArgumentException("prefix is null!");
+        if (k < 0)
+            throw new IllegalArgumentException("k is negative!");
+
+        Entry entry = lookup(prefix);
+        int size = Math.min(k, entry.count());
+
+        // the cached terms cover k unless fewer were asked for before
+        if (entry.top.length < size) {
+            bytes += (long) REFERENCE_BYTES * (size - entry.top.length);
+            entry.top = autocomplete.top(entry.lo, entry.hi, size);
+            evict();
+        }
+        return Arrays.copyOf(entry.top, size);
+    }
+
+    // returns the entry for prefix, creating it from the longest cached
+    // ancestor's range if needed
+    private Entry lookup(String prefix) {
+        Entry entry = cache.get(prefix);
+        if (entry != null) {
+            hits++;
+            return entry;
+        }
+
+        // narrow the search to the range of the longest cached ancestor
+        Entry parent = null;
+        for (int length = prefix.length() - 1; length >= 0 && parent == null; length--)
+            parent = cache.get(prefix.substring(0, length));
+
+        int[] range;
+        if (parent == null) {
+            misses++;
+            range = autocomplete.range(prefix, 0, autocomplete.size() - 1);
+        }
+        else {
+            narrowed++;
+            range = parent.lo == -1 ? null : autocomplete.range(prefix, parent.lo, parent.hi);
+        }
+
+        entry = range == null ? new Entry(-1, -1) : new Entry(range[0], range[1]);
+        cache.put(prefix, entry);
+        bytes += ENTRY_BYTES + 2L * prefix.length();
+        evict();
+        return entry;
+    }
+
+    // evicts least recently used entries until the cache fits its budget
+    private void evict() {
+        Iterator<Map.Entry<String, Entry>> it = cache.entrySet().iterator();
+        while (bytes > maxBytes && cache.size() > 1) {
+            Map.Entry<String, Entry> eldest = it.next();
+            bytes -= ENTRY_BYTES + 2L * eldest.getKey().length()
+                    + (long) REFERENCE_BYTES * eldest.getValue().top.length;
+            it.remove();
+            evictions++;
+        }
+    }
+
+    // Returns the number of lookups answered by an entry for the same prefix.
+    public synchronized long hits() {
+        return hits;
+    }
+
+    // Returns the number of lookups searched within a cached ancestor's range.
+    public synchronized long narrowedHits() {
+        return narrowed;
+    }
+
+    // Returns the number of lookups that searched the whole index.
+    public synchronized long misses() {
+        return misses;
+    }
+
+    // Returns the number of entries evicted to stay within the budget.
+    public synchronized long evictions() {
+        return evictions;
+    }
+
+    // Returns the fraction of lookups that were exact hits.
+    public synchronized double hitRate() {
+        long lookups = hits + narrowed + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+
+    // Returns the estimated size of the cached entries, in bytes.
+    public synchronized long bytes() {
+        return bytes;
+    }
+
+    // unit testing: types each line of standard input one character at a
+    // time and prints the top k terms for the whole line
+    public static void main(String[] args) {
+        // read in the terms from a file, in parallel
+        Term[] terms = TermLoader.load(args[0]);
+
+        int k = Integer.parseInt(args[1]);
+        long maxBytes = args.length > 2 ? Long.parseLong(args[2]) : 1 << 20;
+        AutocompleteCache cache = new AutocompleteCache(new Autocomplete(terms), maxBytes);
+        while (StdIn.hasNextLine()) {
+            String line = StdIn.readLine();
+            for (int length = 1; length < line.length(); length++)
+                cache.topMatches(line.substring(0, length), k);
+
+            Term[] results = cache.topMatches(line, k);
+            StdOut.printf("%d matches\n", cache.numberOfMatches(line));
+            for (int i = 0; i < results.length; i++)
+                StdOut.println(results[i]);
+        }
+        StdOut.printf("hits = %d, narrowed = %d, misses = %d, hit rate = %.3f, "
+                              + "evictions = %d, bytes = %d\n",
+                      cache.hits(), cache.narrowedHits(), cache.misses(),
+                      cache.hitRate(), cache.evictions(), cache.bytes());
+    }
+}
@@ -0,0 +1,166 @@
+/* *****************************************************************************
+ *  Name:    Nick Padmanabhan
+ *  NetID:   ntyp
+ *  Precept: P07
+ *
+ *  Description:  A line-based autocomplete server on the loopback interface.
+ *  All connections share one Autocomplete index and each connection is
+ *  served by its own virtual thread (a pooled platform thread on Java
+ *  versions before 21).
+ *
+ *  Protocol: the client sends one prefix per line; the server replies with
+ *  "<n> matches", the top k terms (one per line, as Term.toString()), and
+ *  an empty line.
+ *
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdOut;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class AutocompleteServer implements AutoCloseable {
+
+    private final Autocomplete autocomplete; // shared, immutable index
+    private final int k; // number of terms per reply
+    private final ServerSocket server; // listening socket
+    private final ExecutorService executor; // one task per connection
+    private final Thread acceptor; // platform thread that accepts connections
+    private final Set<Socket> clients = ConcurrentHashMap.newKeySet(); // open connections
+
+    // Starts a server on the given loopback port (0 for any free port).
+    public AutocompleteServer(Autocomplete autocomplete, int k, int port) {
+        if (autocomplete == null)
+            throw new IllegalArgumentException("autocomplete is null!");
+        if (k < 0)
+            throw new IllegalArgumentException("k is negative!");
+
+        this.autocomplete = autocomplete;
+        this.k = k;
+        try {
+            server = new ServerSocket(port, 1024, InetAddress.getLoopbackAddress());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        executor = newExecutor();
+
+        // virtual threads are daemons, so the accept loop gets a platform
+        // thread that keeps the JVM alive until close()
+        acceptor = new Thread(this::accept, "autocomplete-accept");
+        acceptor.start();
+    }
+
+    // returns a virtual-thread-per-task executor if this JVM has one, or
+    // else a cached pool of daemon platform threads (virtual threads are
+    // daemons too, so neither keeps the JVM alive after close())
+    private static ExecutorService newExecutor() {
+        try {
+            return (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "autocomplete-connection");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    // accepts connections until the server is closed
+    private void accept() {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                clients.add(socket);
+                if (server.isClosed()) close(socket); // close() may have missed it
+                else executor.execute(() -> serve(socket));
+            } catch (IOException e) {
+                if (!server.isClosed()) StdOut.println("accept failed: " + e);
+            }
+        }
+    }
+
+    // answers every prefix sent on one connection
+    private void serve(Socket socket) {
+        try (Socket s = socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(
+                     s.getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new BufferedWriter(new OutputStreamWriter(
+                     s.getOutputStream(), StandardCharsets.UTF_8))) {
+            String prefix;
+            while ((prefix = in.readLine()) != null) {
+                reply(prefix, out);
+
+                // flush every reply: in.ready() is also true when only part
+                // of the next line has arrived, so it cannot tell that the
+                // client is waiting for this reply
+                out.flush();
+            }
+        } catch (IOException e) {
+            // the client went away, or close() closed the socket
+        } finally {
+            clients.remove(socket);
+        }
+    }
+
+    // closes a client socket, ignoring errors
+    private static void close(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // nothing more to do with a socket that will not close
+        }
+    }
+
+    // writes the reply for one prefix
+    private void reply(String prefix, Writer out) throws IOException {
+        Term[] results = autocomplete.topMatches(prefix, k);
+        out.write(autocomplete.numberOfMatches(prefix) + " matches\n");
+        for (Term t : results)
+            out.write(t + "\n");
+        out.write("\n");
+    }
+
+    // Returns the port the server is listening on.
+    public int port() {
+        return server.getLocalPort();
+    }
+
+    // Stops accepting connections, closes the open ones (which unblocks
+    // their threads' reads) and shuts down the connection threads.
+    public void close() {
+        try {
+            server.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            for (Socket socket : clients) close(socket);
+            executor.shutdownNow();
+        }
+    }
+
+    // usage: java AutocompleteServer terms.txt k [port]
+    public static void main(String[] args) {
+        Term[] terms = TermLoader.load(args[0]);
+        int k = Integer.parseInt(args[1]);
+        int port = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+
+        AutocompleteServer server = new AutocompleteServer(new Autocomplete(terms), k, port);
+        StdOut.println("serving " + terms.length + " terms on "
+                               + InetAddress.getLoopbackAddress().getHostAddress()
+                               + ":" + server.port());
+    }
+}
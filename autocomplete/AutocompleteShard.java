@@ -0,0 +1,20 @@
+/* *****************************************************************************
+ *  Name:    Nick Padmanabhan
+ *  NetID:   ntyp
+ *  Precept: P07
+ *
+ *  Description:  One partition of a ShardedAutocomplete. Autocomplete is the
+ *  local implementation; a stub that forwards the two queries to another
+ *  JVM can implement it too, since both take and return plain values.
+ *
+ **************************************************************************** */
+
+public interface AutocompleteShard {
+
+    // Returns the k terms of largest weight that start with the given
+    // prefix, in descending order of weight.
+    Term[] topMatches(String prefix, int k);
+
+    // Returns the number of terms that start with the given prefix.
+    int numberOfMatches(String prefix);
+}
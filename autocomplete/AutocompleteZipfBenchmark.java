@@ -0,0 +1,229 @@
+/* *****************************************************************************
+ *  Name:    Nick Padmanabhan
+ *  NetID:   ntyp
+ *  Precept: P07
+ *
+ *  Description:  A benchmark suite for the Autocomplete stack on a synthetic
+ *  Zipf dictionary. Queries are 1 to 3 words drawn from a Zipf vocabulary,
+ *  so popular words give the long shared prefixes of real query logs, and
+ *  query weights follow a Zipf law too. The workload picks queries by
+ *  weight (popular queries are typed more often) and cuts them to a
+ *  geometric prefix length, so short prefixes with many matches dominate.
+ *  It prints the prefix-length and match-count distributions, then times
+ *  the Term comparators and BinarySearchDeluxe (ns/op of the best round)
+ *  and the Autocomplete queries (p50 / p99 / p999 per query). Run it with
+ *  -Dautocomplete.metrics=true to also see the per-stage histograms.
+ *
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdOut;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.ToLongFunction;
+
+public class AutocompleteZipfBenchmark {
+
+    private static final int WARMUP = 3; // untimed rounds, to let the JIT settle
+    private static final int ROUNDS = 5; // timed rounds
+    private static final double STOP = 0.35; // chance to stop after each prefix char
+    private static final int MAX_WORDS = 3; // words per query
+
+    // a Zipf(s) distribution over the ranks 0..n-1
+    private static class Zipf {
+        private final double[] cdf; // cdf[i] = P(rank <= i)
+
+        // creates the distribution
+        public Zipf(int n, double s) {
+            cdf = new double[n];
+            double sum = 0.0;
+            for (int i = 0; i < n; i++) {
+                sum += 1.0 / Math.pow(i + 1, s);
+                cdf[i] = sum;
+            }
+            for (int i = 0; i < n; i++) cdf[i] /= sum;
+        }
+
+        // returns a random rank
+        public int sample(SplittableRandom random) {
+            int i = Arrays.binarySearch(cdf, random.nextDouble());
+            return Math.min(i < 0 ? -i - 1 : i, cdf.length - 1);
+        }
+    }
+
+    // returns n distinct queries of 1 to 3 words from a Zipf vocabulary, the
+    // i-th heaviest with weight proportional to 1 / (i + 1)^s
+    private static Term[] dictionary(int n, double s, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        String[] vocabulary = new String[Math.max(16, n / 10)];
+        for (int i = 0; i < vocabulary.length; i++) {
+            char[] word = new char[2 + random.nextInt(9)];
+            for (int j = 0; j < word.length; j++) word[j] = (char) ('a' + random.nextInt(26));
+            vocabulary[i] = new String(word);
+        }
+
+        Zipf words = new Zipf(vocabulary.length, s);
+        HashSet<String> seen = new HashSet<String>();
+        Term[] terms = new Term[n];
+        for (int i = 0; i < n; ) {
+            StringBuilder query = new StringBuilder(vocabulary[words.sample(random)]);
+            int more = random.nextInt(MAX_WORDS);
+            for (int j = 0; j < more; j++) query.append(' ').append(vocabulary[words.sample(random)]);
+            if (!seen.add(query.toString())) continue;
+
+            // terms[i] gets the i-th largest weight; the order is random
+            long weight = Math.max(1, (long) (1e12 / Math.pow(i + 1, s)));
+            terms[i++] = new Term(query.toString(), weight);
+        }
+        return terms;
+    }
+
+    // returns count prefixes of queries picked by weight rank, each cut after
+    // 1 + Geometric(STOP) chars
+    private static String[] prefixes(Term[] byWeight, int count, double s, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Zipf popularity = new Zipf(byWeight.length, s);
+        String[] prefixes = new String[count];
+        for (int i = 0; i < count; i++) {
+            String query = byWeight[popularity.sample(random)].query();
+            int length = 1;
+            while (length < query.length() && random.nextDouble() >= STOP) length++;
+            prefixes[i] = query.substring(0, length);
+        }
+        return prefixes;
+    }
+
+    // prints how the prefixes and their match counts are distributed
+    private static void distributions(Autocomplete autocomplete, String[] prefixes) {
+        int[] lengths = new int[9];
+        LatencyHistogram matches = new LatencyHistogram();
+        for (String prefix : prefixes) {
+            lengths[Math.min(prefix.length(), 8)]++;
+            matches.record(autocomplete.numberOfMatches(prefix));
+        }
+
+        StdOut.print("prefix length   ");
+        for (int r = 1; r <= 8; r++)
+            StdOut.printf("%s%d: %4.1f%%   ", r == 8 ? ">=" : "", r,
+                          100.0 * lengths[r] / prefixes.length);
+        StdOut.println();
+        StdOut.printf("match count     p50 = %d   p99 = %d   p999 = %d   max = %d\n",
+                      matches.p50(), matches.p99(), matches.p999(), matches.max());
+    }
+
+    // runs op on 0..count-1, ROUNDS times after WARMUP rounds, and prints the
+    // ns/op of the fastest round; for operations too quick to time one by one
+    private static void throughput(String name, int count, ToLongFunction<Integer> op) {
+        long sink = 0;
+        for (int round = 0; round < WARMUP; round++)
+            for (int i = 0; i < count; i++) sink += op.applyAsLong(i);
+
+        double best = Double.POSITIVE_INFINITY;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < count; i++) sink += op.applyAsLong(i);
+            best = Math.min(best, (double) (System.nanoTime() - start) / count);
+        }
+        StdOut.printf("%-36s %8.1f ns/op                                (checksum %d)\n",
+                      name, best, sink);
+    }
+
+    // runs op on every prefix after WARMUP rounds, timing each call, and
+    // prints the latency percentiles of the timed round, followed by those
+    // of each Autocomplete stage if metrics are on
+    private static void latency(String name, String[] prefixes, ToLongFunction<String> op) {
+        long sink = 0;
+        for (int round = 0; round < WARMUP; round++)
+            for (String prefix : prefixes) sink += op.applyAsLong(prefix);
+        Autocomplete.resetLatencies();
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (String prefix : prefixes) {
+            long start = System.nanoTime();
+            sink += op.applyAsLong(prefix);
+            histogram.record(System.nanoTime() - start);
+        }
+        StdOut.printf("%-36s p50 = %7.2f us   p99 = %7.2f us   p999 = %8.2f us   (checksum %d)\n",
+                      name, histogram.p50() / 1e3, histogram.p99() / 1e3,
+                      histogram.p999() / 1e3, sink);
+
+        if (!Autocomplete.METRICS) return;
+        stage("search", Autocomplete.searchLatency());
+        stage("copy", Autocomplete.copyLatency());
+        stage("sort", Autocomplete.sortLatency());
+        stage("top", Autocomplete.topLatency());
+    }
+
+    // prints the percentiles of one stage, unless it was not reached
+    private static void stage(String name, LatencyHistogram histogram) {
+        if (histogram.count() == 0) return;
+        StdOut.printf("    %-32s p50 = %7.2f us   p99 = %7.2f us   p999 = %8.2f us\n",
+                      name, histogram.p50() / 1e3, histogram.p99() / 1e3,
+                      histogram.p999() / 1e3);
+    }
+
+    // usage: java AutocompleteZipfBenchmark [n] [queries] [k] [s]
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : 200000;
+        int k = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        double s = args.length > 3 ? Double.parseDouble(args[3]) : 1.0;
+
+        Term[] byWeight = dictionary(n, s, 226);
+        String[] prefixes = prefixes(byWeight, count, s, 24);
+        Term[] sorted = byWeight.clone();
+        Arrays.parallelSort(sorted);
+        Autocomplete autocomplete = new Autocomplete(byWeight);
+
+        StdOut.printf("n = %,d   queries = %,d   k = %d   s = %.2f\n", n, count, k, s);
+        distributions(autocomplete, prefixes);
+        StdOut.println();
+
+        // pairs of neighbours in sorted order share long prefixes, the hard
+        // case for the comparators
+        SplittableRandom random = new SplittableRandom(25);
+        int[] left = new int[count];
+        for (int i = 0; i < count; i++) left[i] = random.nextInt(n - 1);
+        Comparator<Term> reverseWeight = Term.byReverseWeightOrder();
+        List<Comparator<Term>> prefixOrders = prefixOrders(prefixes);
+
+        throughput("Term.compareTo", count,
+                   i -> sorted[left[i]].compareTo(sorted[left[i] + 1]));
+        throughput("Term.byPrefixOrder", count,
+                   i -> prefixOrders.get(i).compare(sorted[left[i]], sorted[left[i] + 1]));
+        throughput("Term.byReverseWeightOrder", count,
+                   i -> reverseWeight.compare(sorted[left[i]], sorted[left[i] + 1]));
+        throughput("Term.comparePrefix", count,
+                   i -> sorted[left[i]].comparePrefix(prefixes[i]));
+
+        throughput("BinarySearchDeluxe.firstIndexOf(cmp)", count, i -> {
+            Term key = new Term(prefixes[i], 1);
+            return BinarySearchDeluxe.firstIndexOf(sorted, key, prefixOrders.get(i));
+        });
+        throughput("BinarySearchDeluxe.firstIndexOf", count,
+                   i -> BinarySearchDeluxe.firstIndexOf(sorted, prefixes[i]));
+        throughput("BinarySearchDeluxe.lastIndexOf", count,
+                   i -> BinarySearchDeluxe.lastIndexOf(sorted, prefixes[i]));
+        StdOut.println();
+
+        // allMatches() sorts every match, so it gets a tenth of the prefixes
+        String[] few = Arrays.copyOf(prefixes, Math.max(1, count / 10));
+        latency("Autocomplete.numberOfMatches", prefixes, autocomplete::numberOfMatches);
+        latency("Autocomplete.topMatches", prefixes,
+                prefix -> autocomplete.topMatches(prefix, k).length);
+        latency("Autocomplete.allMatches", few, prefix -> autocomplete.allMatches(prefix).length);
+    }
+
+    // returns the PrefixOrder comparator of each prefix, made ahead of time
+    // so that the comparator benchmark does not time their creation
+    private static List<Comparator<Term>> prefixOrders(String[] prefixes) {
+        List<Comparator<Term>> orders = new ArrayList<Comparator<Term>>(prefixes.length);
+        for (String prefix : prefixes)
+            orders.add(Term.byPrefixOrder(prefix.length()));
+        return orders;
+    }
+}
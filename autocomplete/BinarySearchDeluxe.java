@@ -18,12 +18,20 @@ public class BinarySearchDeluxe {
     // that is equal to the search key, or -1 if no such key.
     public static <Key> int firstIndexOf(Key[] a, Key key,
                                          Comparator<Key> comparator) {
+        if (a == null) throw new IllegalArgumentException("Arguments must be non-null!");
+        return firstIndexOf(a, key, comparator, 0, a.length - 1);
+    }
+
+    // Returns the index of the first key in the sorted subarray a[lo..hi]
+    // that is equal to the search key, or -1 if no such key.
+    public static <Key> int firstIndexOf(Key[] a, Key key, Comparator<Key> comparator,
+                                         int lo, int hi) {
         if (a == null || key == null || comparator == null)
             throw new IllegalArgumentException("Arguments must be non-null!");
+        if (lo < 0 || hi >= a.length)
+            throw new IllegalArgumentException("Invalid range!");
 
         int index = -1; // keeps track of the leftmost key index
-        int lo = 0;
-        int hi = a.length - 1;
 
         // iterate until lo and hi converge
         while (lo <= hi) {
@@ -48,12 +56,20 @@ public class BinarySearchDeluxe {
     // Returns the index of the last key in the sorted array a[]
     // that is equal to the search key, or -1 if no such key.
     public static <Key> int lastIndexOf(Key[] a, Key key, Comparator<Key> comparator) {
+        if (a == null) throw new IllegalArgumentException("Arguments must be non-null!");
+        return lastIndexOf(a, key, comparator, 0, a.length - 1);
+    }
+
+    // Returns the index of the last key in the sorted subarray a[lo..hi]
+    // that is equal to the search key, or -1 if no such key.
+    public static <Key> int lastIndexOf(Key[] a, Key key, Comparator<Key> comparator,
+                                        int lo, int hi) {
         if (a == null || key == null || comparator == null)
             throw new IllegalArgumentException("Arguments must be non-null!");
+        if (lo < 0 || hi >= a.length)
+            throw new IllegalArgumentException("Invalid range!");
 
         int index = -1; // keeps track of the rightmost key index
-        int lo = 0;
-        int hi = a.length - 1;
 
         // iterate until lo and hi converge
         while (lo <= hi) {
@@ -75,6 +91,70 @@ public class BinarySearchDeluxe {
         return index;
     }
 
+    // Returns the index of the first term in the sorted array a[] whose
+    // query starts with prefix, or -1 if no such term. Unlike firstIndexOf()
+    // with Term.byPrefixOrder(), this allocates nothing and makes no
+    // Comparator calls.
+    public static int firstIndexOf(Term[] a, String prefix) {
+        if (a == null) throw new IllegalArgumentException("Arguments must be non-null!");
+        return firstIndexOf(a, prefix, 0, a.length - 1);
+    }
+
+    // Returns the index of the first term in the sorted subarray a[lo..hi]
+    // whose query starts with prefix, or -1 if no such term.
+    public static int firstIndexOf(Term[] a, String prefix, int lo, int hi) {
+        if (a == null || prefix == null)
+            throw new IllegalArgumentException("Arguments must be non-null!");
+        if (lo < 0 || hi >= a.length)
+            throw new IllegalArgumentException("Invalid range!");
+
+        int index = -1; // keeps track of the leftmost match
+        while (lo <= hi) {
+            int mid = lo + (hi - lo) / 2; // calculate midpoint
+            int compare = a[mid].comparePrefix(prefix);
+
+            if (compare > 0) hi = mid - 1; // prefix < current; search left
+            else if (compare < 0) lo = mid + 1; // prefix > current; search right
+            else {
+                index = mid;
+                hi = mid - 1;
+            }
+        }
+
+        return index;
+    }
+
+    // Returns the index of the last term in the sorted array a[] whose
+    // query starts with prefix, or -1 if no such term.
+    public static int lastIndexOf(Term[] a, String prefix) {
+        if (a == null) throw new IllegalArgumentException("Arguments must be non-null!");
+        return lastIndexOf(a, prefix, 0, a.length - 1);
+    }
+
+    // Returns the index of the last term in the sorted subarray a[lo..hi]
+    // whose query starts with prefix, or -1 if no such term.
+    public static int lastIndexOf(Term[] a, String prefix, int lo, int hi) {
+        if (a == null || prefix == null)
+            throw new IllegalArgumentException("Arguments must be non-null!");
+        if (lo < 0 || hi >= a.length)
+            throw new IllegalArgumentException("Invalid range!");
+
+        int index = -1; // keeps track of the rightmost match
+        while (lo <= hi) {
+            int mid = lo + (hi - lo) / 2; // calculate midpoint
+            int compare = a[mid].comparePrefix(prefix);
+
+            if (compare > 0) hi = mid - 1; // prefix < current; search left
+            else if (compare < 0) lo = mid + 1; // prefix > current; search right
+            else {
+                index = mid;
+                lo = mid + 1;
+            }
+        }
+
+        return index;
+    }
+
     // unit testing (required)
     public static void main(String[] args) {
         String[] a = { "A", "A", "C", "G", "G", "T" };
@@ -84,6 +164,14 @@ public class BinarySearchDeluxe {
         int index1 = BinarySearchDeluxe.firstIndexOf(a, "G",
                                                      String.CASE_INSENSITIVE_ORDER);
         StdOut.println(index1); // 3
+        int index2 = BinarySearchDeluxe.firstIndexOf(a, "G",
+                                                     String.CASE_INSENSITIVE_ORDER, 4, 5);
+        StdOut.println(index2); // 4
+        Term[] terms = { new Term("car", 1), new Term("do", 1), new Term("dog", 1),
+                         new Term("dogcatcher", 1), new Term("zebra", 1) };
+        StdOut.println(BinarySearchDeluxe.firstIndexOf(terms, "do")); // 1
+        StdOut.println(BinarySearchDeluxe.lastIndexOf(terms, "do")); // 3
+        StdOut.println(BinarySearchDeluxe.firstIndexOf(terms, "e")); // -1
     }
 }
 
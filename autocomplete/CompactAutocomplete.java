@@ -0,0 +1,178 @@
+/* *****************************************************************************
+ *  Name:    Nick Padmanabhan
+ *  NetID:   ntyp
+ *  Precept: P07
+ *
+ *  Description:  Implements the Autocomplete API on compact arena storage:
+ *  all queries live in one char[] in sorted order, located by an int[]
+ *  offset table, with weights in a parallel long[]. Searches compare the
+ *  prefix against the arena directly, and Term objects are only created for
+ *  the results that are returned. The searches live in ArenaAutocomplete.
+ *
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdIn;
+import edu.princeton.cs.algs4.StdOut;
+
+public class CompactAutocomplete extends ArenaAutocomplete {
+
+    private static final int CUTOFF = 8; // cutoff to insertion sort
+
+    private final char[] arena; // all queries, back to back, in sorted order
+    private final int[] offsets; // query i is arena[offsets[i]..offsets[i + 1])
+    private final long[] weights; // weight of query i
+    private final RangeMaxIndex weightIndex; // range-max index over the weights
+
+    // Initializes the data structure from the given array of terms.
+    public CompactAutocomplete(Term[] terms) {
+        if (terms == null)
+            throw new IllegalArgumentException("terms is null!");
+
+        int n = terms.length;
+        long chars = 0;
+        for (int i = 0; i < n; i++) {
+            if (terms[i] == null)
+                throw new IllegalArgumentException("a term is null!");
+            chars += terms[i].query().length();
+        }
+        if (chars > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("too many characters for one arena");
+
+        // copies the queries into an unsorted arena
+        char[] unsorted = new char[(int) chars];
+        int[] unsortedOffsets = new int[n + 1];
+        long[] unsortedWeights = new long[n];
+        for (int i = 0; i < n; i++) {
+            String query = terms[i].query();
+            query.getChars(0, query.length(), unsorted, unsortedOffsets[i]);
+            unsortedOffsets[i + 1] = unsortedOffsets[i] + query.length();
+            unsortedWeights[i] = terms[i].weight();
+        }
+
+        // sorts the query indices by comparing arena slices
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        sort(unsorted, unsortedOffsets, order, new int[n], 0, n - 1);
+
+        // lays the queries out again in sorted order
+        arena = new char[(int) chars];
+        offsets = new int[n + 1];
+        weights = new long[n];
+        for (int i = 0; i < n; i++) {
+            int j = order[i];
+            int length = unsortedOffsets[j + 1] - unsortedOffsets[j];
+            System.arraycopy(unsorted, unsortedOffsets[j], arena, offsets[i], length);
+            offsets[i + 1] = offsets[i] + length;
+            weights[i] = unsortedWeights[j];
+        }
+
+        weightIndex = new RangeMaxIndex(weights);
+    }
+
+    // stable mergesort of order[lo..hi] by query
+    private static void sort(char[] a, int[] off, int[] order, int[] aux,
+                             int lo, int hi) {
+        if (hi <= lo + CUTOFF) {
+            for (int i = lo + 1; i <= hi; i++)
+                for (int j = i; j > lo && compare(a, off, order[j], order[j - 1]) < 0; j--) {
+                    int temp = order[j];
+                    order[j] = order[j - 1];
+                    order[j - 1] = temp;
+                }
+            return;
+        }
+
+        int mid = lo + (hi - lo) / 2;
+        sort(a, off, order, aux, lo, mid);
+        sort(a, off, order, aux, mid + 1, hi);
+        if (compare(a, off, order[mid], order[mid + 1]) <= 0) return;
+
+        System.arraycopy(order, lo, aux, lo, hi - lo + 1);
+        int i = lo;
+        int j = mid + 1;
+        for (int k = lo; k <= hi; k++) {
+            if (i > mid) order[k] = aux[j++];
+            else if (j > hi) order[k] = aux[i++];
+            else if (compare(a, off, aux[j], aux[i]) < 0) order[k] = aux[j++];
+            else order[k] = aux[i++];
+        }
+    }
+
+    // compares queries i and j of the arena lexicographically
+    private static int compare(char[] a, int[] off, int i, int j) {
+        int p = off[i];
+        int q = off[j];
+        int lengthI = off[i + 1] - p;
+        int lengthJ = off[j + 1] - q;
+        int length = Math.min(lengthI, lengthJ);
+        for (int d = 0; d < length; d++) {
+            char c1 = a[p + d];
+            char c2 = a[q + d];
+            if (c1 != c2) return c1 - c2;
+        }
+        return lengthI - lengthJ;
+    }
+
+    // returns the sorted query arena (for MappedAutocomplete)
+    char[] arena() {
+        return arena;
+    }
+
+    // returns the offset table (for MappedAutocomplete)
+    int[] offsets() {
+        return offsets;
+    }
+
+    // returns the weights in query order (for MappedAutocomplete)
+    long[] weights() {
+        return weights;
+    }
+
+    // returns the range-max index over the weights (for MappedAutocomplete)
+    RangeMaxIndex weightIndex() {
+        return weightIndex;
+    }
+
+    // returns the number of terms
+    int size() {
+        return weights.length;
+    }
+
+    // returns the start of query i in the arena
+    int offset(int i) {
+        return offsets[i];
+    }
+
+    // returns char p of the arena
+    char charAt(int p) {
+        return arena[p];
+    }
+
+    // returns the weight of query i
+    long weight(int i) {
+        return weights[i];
+    }
+
+    // creates the Term at index i, copying its query in one go
+    Term term(int i) {
+        return new Term(new String(arena, offsets[i], offsets[i + 1] - offsets[i]), weights[i]);
+    }
+
+    // unit testing (same client as Autocomplete)
+    public static void main(String[] args) {
+        // read in the terms from a file, in parallel
+        Term[] terms = TermLoader.load(args[0]);
+
+        // read in queries from standard input and print the top k matching terms
+        int k = Integer.parseInt(args[1]);
+        CompactAutocomplete autocomplete = new CompactAutocomplete(terms);
+        terms = null; // only the arena is kept
+        while (StdIn.hasNextLine()) {
+            String prefix = StdIn.readLine();
+            Term[] results = autocomplete.topMatches(prefix, k);
+            StdOut.printf("%d matches\n", autocomplete.numberOfMatches(prefix));
+            for (int i = 0; i < results.length; i++)
+                StdOut.println(results[i]);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/* *****************************************************************************
+ *  Name:    Nick Padmanabhan
+ *  NetID:   ntyp
+ *  Precept: P07
+ *
+ *  Description:  Compares prefix searches (first and last index) with
+ *  BinarySearchDeluxe on the sorted Term[] and with EytzingerIndex, on
+ *  synthetic dictionaries of the given sizes. Half of the prefixes are
+ *  longer than 4 chars, so they also pay for EytzingerIndex's final binary
+ *  search. 10^8 terms need a heap of about 16 GB (-Xmx16g).
+ *
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdOut;
+import edu.princeton.cs.algs4.Stopwatch;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+public class EytzingerBenchmark {
+
+    private static final int QUERIES = 1000000; // prefixes per size
+    private static final int ROUNDS = 3; // timed rounds (the first warms up)
+
+    // returns n random lowercase queries of 3 to 12 chars, sorted
+    private static Term[] dictionary(int n, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Term[] terms = new Term[n];
+        char[] chars = new char[12];
+        for (int i = 0; i < n; i++) {
+            int length = 3 + random.nextInt(10);
+            for (int j = 0; j < length; j++) chars[j] = (char) ('a' + random.nextInt(26));
+            terms[i] = new Term(new String(chars, 0, length), i);
+        }
+        Arrays.parallelSort(terms);
+        return terms;
+    }
+
+    // returns prefixes of 1 to 8 chars of random queries
+    private static String[] prefixes(Term[] terms, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        String[] prefixes = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            String query = terms[random.nextInt(terms.length)].query();
+            prefixes[i] = query.substring(0, Math.min(query.length(), 1 + random.nextInt(8)));
+        }
+        return prefixes;
+    }
+
+    // usage: java EytzingerBenchmark [n ...]
+    public static void main(String[] args) {
+        int[] sizes = { 1000000, 10000000 };
+        if (args.length > 0) {
+            sizes = new int[args.length];
+            for (int i = 0; i < args.length; i++) sizes[i] = Integer.parseInt(args[i]);
+        }
+
+        for (int n : sizes) {
+            Term[] terms = dictionary(n, n);
+            String[] prefixes = prefixes(terms, 22);
+
+            Stopwatch s = new Stopwatch();
+            EytzingerIndex index = new EytzingerIndex(terms);
+            StdOut.printf("n = %,d   layout = %.3f s\n", n, s.elapsedTime());
+
+            double binary = Double.POSITIVE_INFINITY;
+            double eytzinger = Double.POSITIVE_INFINITY;
+            long sink = 0;
+            for (int round = 0; round < ROUNDS; round++) {
+                long start = System.nanoTime();
+                for (String prefix : prefixes) {
+                    int lo = BinarySearchDeluxe.firstIndexOf(terms, prefix);
+                    if (lo != -1) sink += BinarySearchDeluxe.lastIndexOf(terms, prefix) - lo + 1;
+                }
+                binary = Math.min(binary, (double) (System.nanoTime() - start) / QUERIES);
+
+                start = System.nanoTime();
+                for (String prefix : prefixes) {
+                    int lo = index.firstIndexOf(prefix);
+                    if (lo != -1) sink -= index.lastIndexOf(prefix) - lo + 1;
+                }
+                eytzinger = Math.min(eytzinger, (double) (System.nanoTime() - start) / QUERIES);
+            }
+            if (sink != 0) throw new IllegalStateException("the two searches disagree!");
+
+            StdOut.printf("    BinarySearchDeluxe %8.1f ns/op\n", binary);
+            StdOut.printf("    EytzingerIndex     %8.1f ns/op\n", eytzinger);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+/* *****************************************************************************
+ *  Name:    Nick Padmanabhan
+ *  NetID:   ntyp
+ *  Precept: P07
+ *
+ *  Description:  A prefix search index over sorted terms with the same
+ *  first/last-index semantics as BinarySearchDeluxe. The first 4 chars of
+ *  every query are packed into one long, and the longs are stored in
+ *  Eytzinger (BFS) order: the children of slot k are slots 2k and 2k + 1.
+ *  The top levels of the search then share a few cache lines, and each
+ *  probe is one primitive load and compare instead of a pointer chase
+ *  through Term and String. The search loop has no data-dependent branch,
+ *  only k = 2k + (key < x). Prefixes longer than 4 chars, or with a NUL
+ *  char, finish with a binary search of the terms within the packed range.
+ *  Slot indexes go up to 2n + 1 and must fit in an int, so the index holds
+ *  at most 2^30 - 1 terms.
+ *
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdOut;
+
+public class EytzingerIndex {
+
+    private static final int CHARS = 4; // chars packed into each key
+    private static final int MAX_TERMS = (1 << 30) - 1; // keeps 2n + 1 an int
+
+    private final Term[] terms; // the sorted terms (not copied)
+    private final long[] keys; // keys[k] = packed query, BFS order, from k = 1
+    private final int[] rank; // rank[k] = index in terms of keys[k]
+    private final int n; // number of terms
+
+    // Initializes the index over terms, which must be sorted by query and
+    // must not change afterwards.
+    public EytzingerIndex(Term[] terms) {
+        if (terms == null)
+            throw new IllegalArgumentException("terms is null!");
+        if (terms.length > MAX_TERMS)
+            throw new IllegalArgumentException("too many terms for an EytzingerIndex!");
+        for (int i = 1; i < terms.length; i++)
+            if (terms[i - 1].compareTo(terms[i]) > 0)
+                throw new IllegalArgumentException("terms are not sorted!");
+
+        this.terms = terms;
+        n = terms.length;
+        keys = new long[n + 1];
+        rank = new int[n + 1];
+        layout();
+    }
+
+    // fills the slots with the terms in order, by an in-order walk of the
+    // implicit tree (iterative, so deep trees cannot overflow the stack)
+    private void layout() {
+        int[] stack = new int[64];
+        int top = 0;
+        int k = 1;
+        int i = 0;
+        while (k <= n || top > 0) {
+            if (k <= n) {
+                stack[top++] = k;
+                k = 2 * k;
+            }
+            else {
+                k = stack[--top];
+                keys[k] = pack(terms[i].query(), CHARS) ^ Long.MIN_VALUE;
+                rank[k] = i++;
+                k = 2 * k + 1;
+            }
+        }
+    }
+
+    // packs the first r (at most 4) chars of s into a long, padding with
+    // zeros; keys are stored with the sign bit flipped, so that signed order
+    // matches the unsigned (string) order
+    private static long pack(String s, int r) {
+        long key = 0;
+        for (int i = 0; i < CHARS; i++)
+            key = (key << 16) | (i < r && i < s.length() ? s.charAt(i) : 0);
+        return key;
+    }
+
+    // returns the sorted index of the first key >= x (if strict is false) or
+    // > x (if strict is true), or n if there is none
+    private int search(long x, boolean strict) {
+        int k = 1;
+        if (strict) while (k <= n) k = 2 * k + (keys[k] <= x ? 1 : 0);
+        else while (k <= n) k = 2 * k + (keys[k] < x ? 1 : 0);
+
+        // undo the trailing right turns (and the last left turn) to reach
+        // the last slot where the search went left
+        k >>>= Integer.numberOfTrailingZeros(~k) + 1;
+        return k == 0 ? n : rank[k];
+    }
+
+    // Returns the index of the first term whose query starts with prefix,
+    // or -1 if there is none.
+    public int firstIndexOf(String prefix) {
+        if (prefix == null)
+            throw new IllegalArgumentException("prefix is null!");
+
+        int first = start(prefix);
+        if (first == n) return -1;
+        if (needsRefinement(prefix)) {
+            int end = end(prefix);
+            if (first >= end) return -1;
+            return BinarySearchDeluxe.firstIndexOf(terms, prefix, first, end - 1);
+        }
+        return terms[first].comparePrefix(prefix) == 0 ? first : -1;
+    }
+
+    // Returns the index of the last term whose query starts with prefix, or
+    // -1 if there is none.
+    public int lastIndexOf(String prefix) {
+        if (prefix == null)
+            throw new IllegalArgumentException("prefix is null!");
+
+        int end = end(prefix);
+        if (end == 0) return -1;
+        if (needsRefinement(prefix)) {
+            int first = start(prefix);
+            if (first >= end) return -1;
+            return BinarySearchDeluxe.lastIndexOf(terms, prefix, first, end - 1);
+        }
+        return terms[end - 1].comparePrefix(prefix) == 0 ? end - 1 : -1;
+    }
+
+    // returns the index of the first term whose first 4 chars are
+    // consistent with prefix
+    private int start(String prefix) {
+        return search(pack(prefix, prefix.length()) ^ Long.MIN_VALUE, false);
+    }
+
+    // returns the index just past the last term whose first 4 chars are
+    // consistent with prefix
+    private int end(String prefix) {
+        int r = Math.min(prefix.length(), CHARS);
+
+        // the largest key with these r chars: the remaining chars all 0xFFFF
+        long rest = r == CHARS ? 0 : -1L >>> (16 * r);
+        return search((pack(prefix, r) | rest) ^ Long.MIN_VALUE, true);
+    }
+
+    // do the packed keys leave the match ambiguous? (a prefix longer than 4
+    // chars, or a NUL char, which packs like the padding)
+    private static boolean needsRefinement(String prefix) {
+        if (prefix.length() > CHARS) return true;
+        return prefix.indexOf('\u0000') >= 0;
+    }
+
+    // unit testing
+    public static void main(String[] args) {
+        Term[] terms = {
+                new Term("car", 1), new Term("cart", 1), new Term("do", 1),
+                new Term("dog", 1), new Term("dogcatcher", 1), new Term("dogcatchers", 1),
+                new Term("zebra", 1)
+        };
+        EytzingerIndex index = new EytzingerIndex(terms);
+        StdOut.println(index.firstIndexOf("do")); // 2
+        StdOut.println(index.lastIndexOf("do")); // 5
+        StdOut.println(index.firstIndexOf("dogcat")); // 4
+        StdOut.println(index.lastIndexOf("dogcatchers")); // 5
+        StdOut.println(index.firstIndexOf("e")); // -1
+        StdOut.println(index.lastIndexOf("")); // 6
+    }
+}
@@ -0,0 +1,142 @@
+/* *****************************************************************************
+ *  Name:    Nick Padmanabhan
+ *  NetID:   ntyp
+ *  Precept: P07
+ *
+ *  Description:  A concurrent latency histogram with HDR-style log-linear
+ *  buckets: values below 64 get a bucket each, and every power of two above
+ *  that is split into 32 buckets, so any recorded value is reported within
+ *  about 3% using under 2,000 counters. Recording is one bucket computation
+ *  (a leading-zeros count and a shift) and one atomic increment.
+ *
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdOut;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 6; // values below 2^SUB_BITS are exact
+    private static final int HALF = 1 << (SUB_BITS - 1); // buckets per power of two
+    private static final int BUCKETS = (64 - SUB_BITS + 2) * HALF; // covers all longs
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS); // per bucket
+
+    // creates an empty histogram
+    public LatencyHistogram() {
+    }
+
+    // returns the bucket of value v >= 0
+    private static int bucket(long v) {
+        int magnitude = 63 - Long.numberOfLeadingZeros(v); // floor(log2 v), -1 for 0
+        if (magnitude < SUB_BITS) return (int) v;
+        int shift = magnitude - (SUB_BITS - 1);
+        return (shift << (SUB_BITS - 1)) + (int) (v >>> shift);
+    }
+
+    // returns the largest value that falls in bucket b
+    private static long highestValue(int b) {
+        if (b < 2 * HALF) return b;
+        int shift = (b >> (SUB_BITS - 1)) - 1;
+        long mantissa = b - ((long) shift << (SUB_BITS - 1));
+        return ((mantissa + 1) << shift) - 1;
+    }
+
+    // Records one value (a latency in nanoseconds, say); negative values
+    // count as 0.
+    public void record(long value) {
+        counts.incrementAndGet(bucket(Math.max(0, value)));
+    }
+
+    // Adds the counts of that histogram to this one.
+    public void add(LatencyHistogram that) {
+        for (int b = 0; b < BUCKETS; b++) {
+            long c = that.counts.get(b);
+            if (c != 0) counts.addAndGet(b, c);
+        }
+    }
+
+    // Clears the counts; values recorded concurrently may or may not survive.
+    public void reset() {
+        for (int b = 0; b < BUCKETS; b++) counts.set(b, 0);
+    }
+
+    // Returns a copy of the current counts.
+    public LatencyHistogram snapshot() {
+        LatencyHistogram copy = new LatencyHistogram();
+        copy.add(this);
+        return copy;
+    }
+
+    // Returns the number of recorded values.
+    public long count() {
+        long n = 0;
+        for (int b = 0; b < BUCKETS; b++) n += counts.get(b);
+        return n;
+    }
+
+    // Returns the value at or below which a fraction p of the recorded
+    // values fall (to within the bucket width), or 0 if there are none.
+    public long percentile(double p) {
+        if (!(p >= 0.0 && p <= 1.0))
+            throw new IllegalArgumentException("p must be between 0 and 1!");
+
+        long[] c = new long[BUCKETS];
+        long n = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            c[b] = counts.get(b);
+            n += c[b];
+        }
+        if (n == 0) return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(p * n));
+        long seen = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            seen += c[b];
+            if (seen >= rank) return highestValue(b);
+        }
+        return highestValue(BUCKETS - 1);
+    }
+
+    // Returns the median.
+    public long p50() {
+        return percentile(0.50);
+    }
+
+    // Returns the 99th percentile.
+    public long p99() {
+        return percentile(0.99);
+    }
+
+    // Returns the 99.9th percentile.
+    public long p999() {
+        return percentile(0.999);
+    }
+
+    // Returns the largest recorded value (to within the bucket width).
+    public long max() {
+        return percentile(1.0);
+    }
+
+    // Returns a one-line summary, reading the values as nanoseconds.
+    public String toString() {
+        LatencyHistogram s = snapshot();
+        return String.format("n = %d   p50 = %.1f us   p99 = %.1f us   p999 = %.1f us   max = %.1f us",
+                             s.count(), s.p50() / 1e3, s.p99() / 1e3, s.p999() / 1e3,
+                             s.max() / 1e3);
+    }
+
+    // unit testing
+    public static void main(String[] args) {
+        LatencyHistogram h = new LatencyHistogram();
+        for (long v = 1; v <= 100000; v++) h.record(v);
+        StdOut.println(h.count()); // 100000
+        StdOut.println(h.p50()); // within 3% of 50000
+        StdOut.println(h.p99()); // within 3% of 99000
+        StdOut.println(h.max()); // within 3% of 100000
+        for (long v = 0; v < 1L << 40; v = 3 * v + 1)
+            if (highestValue(bucket(v)) < v || highestValue(bucket(v)) > v + v / HALF)
+                StdOut.println("bad bucket for " + v);
+    }
+}
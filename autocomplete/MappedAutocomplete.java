@@ -0,0 +1,166 @@
+/* *****************************************************************************
+ *  Name:    Nick Padmanabhan
+ *  NetID:   ntyp
+ *  Precept: P07
+ *
+ *  Description:  Implements the Autocomplete API on a prebuilt index file
+ *  that is memory-mapped with FileChannel.map(), so a new instance is ready
+ *  to query without parsing or sorting, and processes that map the same
+ *  file share its pages in the OS page cache. The searches live in
+ *  ArenaAutocomplete.
+ *
+ *  File layout (little-endian), written by write():
+ *      int magic, int version, int n, int chars
+ *      long[n]      weights, in query order
+ *      int[n + 1]   offsets of each query in the arena
+ *      int[2n]      range-max tree over the weights
+ *      char[chars]  arena of all queries, back to back, in sorted order
+ *
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdIn;
+import edu.princeton.cs.algs4.StdOut;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+public class MappedAutocomplete extends ArenaAutocomplete {
+
+    private static final int MAGIC = 0x41434958; // "ACIX"
+    private static final int VERSION = 1; // index format version
+    private static final int HEADER_BYTES = 16; // magic, version, n, chars
+
+    private final CharBuffer arena; // all queries, in sorted order
+    private final IntBuffer offsets; // query i is arena[offsets[i]..offsets[i + 1])
+    private final LongBuffer weights; // weight of query i
+    private final MappedRangeMaxIndex weightIndex; // range-max index over the weights
+    private final int n; // number of terms
+
+    // Maps the index file written by write().
+    public MappedAutocomplete(String filename) {
+        if (filename == null)
+            throw new IllegalArgumentException("filename is null!");
+
+        try (FileChannel channel = FileChannel.open(Paths.get(filename),
+                                                    StandardOpenOption.READ)) {
+            MappedByteBuffer header = map(channel, FileChannel.MapMode.READ_ONLY,
+                                          0, HEADER_BYTES);
+            if (header.getInt() != MAGIC)
+                throw new IllegalArgumentException(filename + " is not an autocomplete index");
+            if (header.getInt() != VERSION)
+                throw new IllegalArgumentException(filename + " has an unsupported version");
+            n = header.getInt();
+            int chars = header.getInt();
+
+            long pos = HEADER_BYTES;
+            weights = map(channel, FileChannel.MapMode.READ_ONLY, pos, 8L * n).asLongBuffer();
+            pos += 8L * n;
+            offsets = map(channel, FileChannel.MapMode.READ_ONLY, pos, 4L * (n + 1)).asIntBuffer();
+            pos += 4L * (n + 1);
+            IntBuffer tree = map(channel, FileChannel.MapMode.READ_ONLY, pos, 8L * n).asIntBuffer();
+            pos += 8L * n;
+            arena = map(channel, FileChannel.MapMode.READ_ONLY, pos, 2L * chars).asCharBuffer();
+
+            weightIndex = new MappedRangeMaxIndex(weights, tree);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Builds the index for the given terms and writes it to filename.
+    public static void write(Term[] terms, String filename) {
+        if (filename == null)
+            throw new IllegalArgumentException("filename is null!");
+
+        CompactAutocomplete compact = new CompactAutocomplete(terms);
+        long[] weights = compact.weights();
+        int[] offsets = compact.offsets();
+        char[] arena = compact.arena();
+        int n = weights.length;
+
+        try (FileChannel channel = FileChannel.open(Paths.get(filename),
+                                                    StandardOpenOption.CREATE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING,
+                                                    StandardOpenOption.READ,
+                                                    StandardOpenOption.WRITE)) {
+            FileChannel.MapMode mode = FileChannel.MapMode.READ_WRITE;
+            MappedByteBuffer header = map(channel, mode, 0, HEADER_BYTES);
+            header.putInt(MAGIC).putInt(VERSION).putInt(n).putInt(arena.length);
+
+            long pos = HEADER_BYTES;
+            map(channel, mode, pos, 8L * n).asLongBuffer().put(weights);
+            pos += 8L * n;
+            map(channel, mode, pos, 4L * (n + 1)).asIntBuffer().put(offsets);
+            pos += 4L * (n + 1);
+            compact.weightIndex().writeTree(map(channel, mode, pos, 8L * n).asIntBuffer());
+            pos += 8L * n;
+            map(channel, mode, pos, 2L * arena.length).asCharBuffer().put(arena);
+            channel.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // maps one section of the file in little-endian order
+    private static MappedByteBuffer map(FileChannel channel, FileChannel.MapMode mode,
+                                       long pos, long size) throws IOException {
+        if (size > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("index section larger than 2 GB");
+        MappedByteBuffer buffer = channel.map(mode, pos, size);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    // returns the number of terms
+    int size() {
+        return n;
+    }
+
+    // returns the start of query i in the arena
+    int offset(int i) {
+        return offsets.get(i);
+    }
+
+    // returns char p of the arena
+    char charAt(int p) {
+        return arena.get(p);
+    }
+
+    // returns the weight of query i
+    long weight(int i) {
+        return weights.get(i);
+    }
+
+    // returns the range-max index over the weights
+    MappedRangeMaxIndex weightIndex() {
+        return weightIndex;
+    }
+
+    // usage: java MappedAutocomplete -build terms.txt index.bin
+    //        java MappedAutocomplete index.bin k < prefixes
+    public static void main(String[] args) {
+        if (args[0].equals("-build")) {
+            write(TermLoader.load(args[1]), args[2]);
+            return;
+        }
+
+        // read in queries from standard input and print the top k matching terms
+        MappedAutocomplete autocomplete = new MappedAutocomplete(args[0]);
+        int k = Integer.parseInt(args[1]);
+        while (StdIn.hasNextLine()) {
+            String prefix = StdIn.readLine();
+            Term[] results = autocomplete.topMatches(prefix, k);
+            StdOut.printf("%d matches\n", autocomplete.numberOfMatches(prefix));
+            for (int i = 0; i < results.length; i++)
+                StdOut.println(results[i]);
+        }
+    }
+}
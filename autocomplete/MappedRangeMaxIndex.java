@@ -0,0 +1,63 @@
+/* *****************************************************************************
+ *  Name:    Nick Padmanabhan
+ *  NetID:   ntyp
+ *  Precept: P07
+ *
+ *  Description:  The RangeMaxIndex segment tree read in place from buffers,
+ *  for example views of a memory-mapped file, instead of from arrays. The
+ *  queries live in AbstractRangeMaxIndex; this class holds the buffers.
+ *
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdOut;
+
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+
+public class MappedRangeMaxIndex extends AbstractRangeMaxIndex {
+
+    private final LongBuffer weights; // indexed weights (not copied)
+    private final IntBuffer tree; // tree[n + i] = i; tree[i] = heavier child
+
+    // Initializes the index from weights and a tree written by
+    // RangeMaxIndex.writeTree(); neither may change afterwards.
+    public MappedRangeMaxIndex(LongBuffer weights, IntBuffer tree) {
+        super(length(weights, tree));
+
+        this.weights = weights;
+        this.tree = tree;
+    }
+
+    // returns the number of weights, checking that the tree matches them
+    private static int length(LongBuffer weights, IntBuffer tree) {
+        if (weights == null || tree == null)
+            throw new IllegalArgumentException("weights or tree is null!");
+        if (tree.limit() != 2 * weights.limit())
+            throw new IllegalArgumentException("tree does not match the weights!");
+        return weights.limit();
+    }
+
+    // returns weight i
+    protected long weight(int i) {
+        return weights.get(i);
+    }
+
+    // returns tree node i
+    protected int node(int i) {
+        return tree.get(i);
+    }
+
+    // unit testing
+    public static void main(String[] args) {
+        long[] w = { 5, 1, 9, 3, 9, 7, 2 };
+        IntBuffer tree = IntBuffer.allocate(2 * w.length);
+        new RangeMaxIndex(w).writeTree(tree);
+        tree.flip();
+        MappedRangeMaxIndex index = new MappedRangeMaxIndex(LongBuffer.wrap(w), tree);
+        StdOut.println(index.argmax(0, 6)); // 2
+        StdOut.println(index.argmax(3, 6)); // 4
+        for (int i : index.top(0, 6, 4))
+            StdOut.print(i + " "); // 2 4 5 0
+        StdOut.println();
+    }
+}
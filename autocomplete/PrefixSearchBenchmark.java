@@ -0,0 +1,86 @@
+/* *****************************************************************************
+ *  Name:    Nick Padmanabhan
+ *  NetID:   ntyp
+ *  Precept: P07
+ *
+ *  Description:  Microbenchmark of one prefix search (first and last index
+ *  of the matches) over the sorted terms. It compares the Comparator path,
+ *  which needs a dummy Term and a PrefixOrder per query, with the direct
+ *  Term.comparePrefix() path. It reports ns/op and the bytes each op
+ *  allocates, as counted by com.sun.management.ThreadMXBean. Run it with
+ *  -XX:-DoEscapeAnalysis to see what the Comparator path allocates when the
+ *  JIT cannot prove that its dummy Term and PrefixOrder do not escape.
+ *
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdOut;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.function.ToIntFunction;
+
+public class PrefixSearchBenchmark {
+
+    private static final int WARMUP = 5; // untimed rounds, to let the JIT settle
+    private static final int ROUNDS = 5; // timed rounds
+
+    // returns the bytes allocated so far by the current thread, or -1 if the
+    // JVM does not count them
+    private static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) return -1;
+        return ((com.sun.management.ThreadMXBean) bean)
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    // runs search over every prefix, ROUNDS times after WARMUP rounds, and
+    // prints ns/op and bytes/op of the fastest round
+    private static void bench(String name, ToIntFunction<String> search, String[] prefixes) {
+        long sink = 0;
+        for (int round = 0; round < WARMUP; round++)
+            for (String prefix : prefixes) sink += search.applyAsInt(prefix);
+
+        double bestNanos = Double.POSITIVE_INFINITY;
+        double bestBytes = Double.POSITIVE_INFINITY;
+        for (int round = 0; round < ROUNDS; round++) {
+            long bytes = allocatedBytes();
+            long start = System.nanoTime();
+            for (String prefix : prefixes) sink += search.applyAsInt(prefix);
+            long nanos = System.nanoTime() - start;
+            bytes = allocatedBytes() - bytes;
+            bestNanos = Math.min(bestNanos, (double) nanos / prefixes.length);
+            bestBytes = Math.min(bestBytes, (double) bytes / prefixes.length);
+        }
+
+        StdOut.printf("%-12s %8.1f ns/op   %6.1f B/op   (checksum %d)\n",
+                      name, bestNanos, bestBytes, sink);
+    }
+
+    // usage: java PrefixSearchBenchmark terms.txt [queries]
+    public static void main(String[] args) {
+        Term[] terms = TermLoader.load(args[0]);
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : 1000000;
+        String[] prefixes = AutocompleteBenchmark.samplePrefixes(terms, count, 21);
+        Term[] a = terms.clone();
+        Arrays.sort(a);
+
+        bench("comparator", prefix -> {
+            Term key = new Term(prefix, 1);
+            int lo = BinarySearchDeluxe.firstIndexOf(a, key, Term.byPrefixOrder(prefix.length()));
+            if (lo == -1) return 0;
+            int hi = BinarySearchDeluxe.lastIndexOf(a, key, Term.byPrefixOrder(prefix.length()));
+            return hi - lo + 1;
+        }, prefixes);
+
+        bench("direct", prefix -> {
+            int lo = BinarySearchDeluxe.firstIndexOf(a, prefix);
+            if (lo == -1) return 0;
+            int hi = BinarySearchDeluxe.lastIndexOf(a, prefix);
+            return hi - lo + 1;
+        }, prefixes);
+
+        Autocomplete autocomplete = new Autocomplete(terms);
+        bench("Autocomplete", autocomplete::numberOfMatches, prefixes);
+    }
+}
@@ -0,0 +1,76 @@
+/* *****************************************************************************
+ *  Name:    Nick Padmanabhan
+ *  NetID:   ntyp
+ *  Precept: P07
+ *
+ *  Description:  Implements the RangeMaxIndex data type, a segment tree over
+ *  an array of weights that finds the heaviest entry of any index range, and
+ *  the k heaviest entries of a range by expanding sub-ranges from a heap.
+ *  The queries live in AbstractRangeMaxIndex; this class holds the arrays.
+ *
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdOut;
+
+import java.nio.IntBuffer;
+
+public class RangeMaxIndex extends AbstractRangeMaxIndex {
+
+    private final long[] weights; // indexed weights (not copied)
+    private final int[] tree; // tree[n + i] = i; tree[i] = heavier child
+
+    // Initializes the index over the given weights, which must not change
+    // afterwards.
+    public RangeMaxIndex(long[] weights) {
+        super(length(weights));
+
+        this.weights = weights;
+        int n = weights.length;
+        tree = new int[2 * n];
+        for (int i = 0; i < n; i++) tree[n + i] = i;
+        // plain array loads here keep the shared heavier() profiled for
+        // queries only, whichever subclass runs them
+        for (int i = n - 1; i > 0; i--) {
+            int left = tree[2 * i];
+            int right = tree[2 * i + 1];
+            tree[i] = weights[right] > weights[left] ? right : left;
+        }
+    }
+
+    // returns the number of weights, checking that weights is not null
+    private static int length(long[] weights) {
+        if (weights == null)
+            throw new IllegalArgumentException("weights is null!");
+        return weights.length;
+    }
+
+    // Writes the tree (2n ints) to out, for MappedRangeMaxIndex to read back.
+    void writeTree(IntBuffer out) {
+        out.put(tree);
+    }
+
+    // returns weight i
+    protected long weight(int i) {
+        return weights[i];
+    }
+
+    // returns tree node i
+    protected int node(int i) {
+        return tree[i];
+    }
+
+    // unit testing
+    public static void main(String[] args) {
+        long[] w = { 5, 1, 9, 3, 9, 7, 2 };
+        RangeMaxIndex index = new RangeMaxIndex(w);
+        StdOut.println(index.argmax(0, 6)); // 2
+        StdOut.println(index.argmax(3, 6)); // 4
+        StdOut.println(index.argmax(0, 1)); // 0
+        for (int i : index.top(0, 6, 4))
+            StdOut.print(i + " "); // 2 4 5 0
+        StdOut.println();
+        for (int i : index.top(5, 6, 10))
+            StdOut.print(i + " "); // 5 6
+        StdOut.println();
+    }
+}
@@ -0,0 +1,286 @@
+/* *****************************************************************************
+ *  Name:    Nick Padmanabhan
+ *  NetID:   ntyp
+ *  Precept: P07
+ *
+ *  Description:  A scatter-gather front end over N independent
+ *  AutocompleteShards. Terms are split either by key range (contiguous runs
+ *  of the sorted queries, so a prefix only visits the shards its range
+ *  overlaps) or by hash of the query (even load, but every shard is
+ *  visited). The visited shards are queried in parallel, and their top-k
+ *  lists are merged with a heap. Each shard can be rebuilt or replaced on
+ *  its own while the others keep serving.
+ *
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.MaxPQ;
+import edu.princeton.cs.algs4.StdIn;
+import edu.princeton.cs.algs4.StdOut;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public class ShardedAutocomplete implements AutoCloseable {
+
+    private final AtomicReferenceArray<AutocompleteShard> shards; // the partitions
+    private final String[] bounds; // smallest query of each range shard, or null
+    private final ForkJoinPool pool; // runs the per-shard queries
+
+    // creates a front end over the given shards; bounds is null for hash
+    // sharding
+    private ShardedAutocomplete(AutocompleteShard[] shards, String[] bounds) {
+        this.shards = new AtomicReferenceArray<AutocompleteShard>(shards);
+        this.bounds = bounds;
+        pool = new ForkJoinPool(Math.min(shards.length,
+                                         Runtime.getRuntime().availableProcessors()));
+    }
+
+    // Splits the terms into (up to) the given number of key ranges of about
+    // equal size.
+    public static ShardedAutocomplete byRange(Term[] terms, int n) {
+        Term[] sorted = checkTerms(terms, n).clone();
+        Arrays.parallelSort(sorted);
+
+        // each boundary moves forward past equal queries, so a query never
+        // straddles two shards; ranges left empty by that are dropped
+        List<Integer> starts = new ArrayList<Integer>();
+        starts.add(0);
+        for (int i = 1; i < n; i++) {
+            int start = (int) ((long) sorted.length * i / n);
+            while (start > 0 && start < sorted.length
+                    && sorted[start].query().equals(sorted[start - 1].query()))
+                start++;
+            if (start > starts.get(starts.size() - 1) && start < sorted.length)
+                starts.add(start);
+        }
+        starts.add(sorted.length);
+
+        int shards = starts.size() - 1;
+        AutocompleteShard[] parts = new AutocompleteShard[shards];
+        String[] bounds = new String[shards];
+        for (int i = 0; i < shards; i++) {
+            parts[i] = new Autocomplete(Arrays.copyOfRange(sorted, starts.get(i), starts.get(i + 1)));
+            bounds[i] = i == 0 ? "" : sorted[starts.get(i)].query();
+        }
+        return new ShardedAutocomplete(parts, bounds);
+    }
+
+    // Splits the terms into the given number of shards by hash of the query.
+    public static ShardedAutocomplete byHash(Term[] terms, int n) {
+        checkTerms(terms, n);
+        List<List<Term>> parts = new ArrayList<List<Term>>();
+        for (int i = 0; i < n; i++) parts.add(new ArrayList<Term>());
+        for (Term t : terms) parts.get(hash(t.query(), n)).add(t);
+
+        AutocompleteShard[] shards = new AutocompleteShard[n];
+        for (int i = 0; i < n; i++)
+            shards[i] = new Autocomplete(parts.get(i).toArray(new Term[0]));
+        return new ShardedAutocomplete(shards, null);
+    }
+
+    // checks the arguments of a factory and returns terms
+    private static Term[] checkTerms(Term[] terms, int n) {
+        if (terms == null)
+            throw new IllegalArgumentException("terms is null!");
+        for (Term t : terms)
+            if (t == null)
+                throw new IllegalArgumentException("a term is null!");
+        if (n <= 0)
+            throw new IllegalArgumentException("number of shards must be positive!");
+        return terms;
+    }
+
+    // returns the hash shard of the query
+    private static int hash(String query, int n) {
+        return Math.floorMod(query.hashCode(), n);
+    }
+
+    // Returns the number of shards.
+    public int size() {
+        return shards.length();
+    }
+
+    // Rebuilds one shard from the given terms, which must all belong to it;
+    // the other shards keep serving queries meanwhile.
+    public void rebuild(int shard, Term[] terms) {
+        checkTerms(terms, size());
+        for (Term t : terms)
+            if (shardOf(t.query()) != shard)
+                throw new IllegalArgumentException(t.query() + " does not belong to shard " + shard);
+        replace(shard, new Autocomplete(terms));
+    }
+
+    // Replaces one shard, for example with a stub for a shard in another JVM.
+    public void replace(int shard, AutocompleteShard replacement) {
+        if (shard < 0 || shard >= size())
+            throw new IllegalArgumentException("Invalid shard!");
+        if (replacement == null)
+            throw new IllegalArgumentException("replacement is null!");
+        shards.set(shard, replacement);
+    }
+
+    // returns the shard that holds the given query
+    private int shardOf(String query) {
+        if (bounds == null) return hash(query, size());
+
+        int lo = 0;
+        int hi = bounds.length - 1;
+        while (lo < hi) {
+            int mid = lo + (hi - lo + 1) / 2;
+            if (bounds[mid].compareTo(query) <= 0) lo = mid;
+            else hi = mid - 1;
+        }
+        return lo;
+    }
+
+    // returns the first and last shards that can hold queries starting with
+    // prefix
+    private int[] shardsFor(String prefix) {
+        if (bounds == null) return new int[] { 0, size() - 1 };
+
+        // the first shard is the one prefix itself would go in; the last is
+        // the last one whose smallest query is not past every match
+        int first = shardOf(prefix);
+        int last = first;
+        while (last + 1 < bounds.length
+                && new Term(bounds[last + 1], 0).comparePrefix(prefix) <= 0)
+            last++;
+        return new int[] { first, last };
+    }
+
+    // runs the query on every shard in [first, last], in parallel when there
+    // is more than one, and returns the results in shard order
+    private <T> List<T> scatter(int first, int last, ShardQuery<T> query) {
+        List<T> results = new ArrayList<T>();
+        if (first == last) {
+            results.add(query.apply(shards.get(first)));
+            return results;
+        }
+
+        List<Callable<T>> tasks = new ArrayList<Callable<T>>();
+        for (int i = first; i <= last; i++) {
+            AutocompleteShard shard = shards.get(i);
+            tasks.add(() -> query.apply(shard));
+        }
+        try {
+            for (Future<T> result : pool.invokeAll(tasks)) results.add(result.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted during a shard query", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new IllegalStateException(e.getCause());
+        }
+        return results;
+    }
+
+    // a query against one shard
+    private interface ShardQuery<T> {
+        // runs the query on the shard
+        T apply(AutocompleteShard shard);
+    }
+
+    // Returns the k terms of largest weight that start with the given
+    // prefix, in descending order of weight.
+    public Term[] topMatches(String prefix, int k) {
+        if (prefix == null)
+            throw new IllegalArgumentException("prefix is null!");
+        if (k < 0)
+            throw new IllegalArgumentException("k is negative!");
+
+        int[] range = shardsFor(prefix);
+        List<Term[]> tops = scatter(range[0], range[1], shard -> shard.topMatches(prefix, k));
+        if (tops.size() == 1) return tops.get(0);
+
+        // merge the per-shard lists, heaviest head first
+        MaxPQ<Cursor> pq = new MaxPQ<Cursor>();
+        for (Term[] top : tops)
+            if (top.length > 0) pq.insert(new Cursor(top));
+
+        List<Term> matches = new ArrayList<Term>();
+        while (matches.size() < k && !pq.isEmpty()) {
+            Cursor best = pq.delMax();
+            matches.add(best.head());
+            if (best.advance()) pq.insert(best);
+        }
+        return matches.toArray(new Term[0]);
+    }
+
+    // Returns all terms that start with the given prefix, in descending order
+    // of weight.
+    public Term[] allMatches(String prefix) {
+        return topMatches(prefix, numberOfMatches(prefix));
+    }
+
+    // Returns the number of terms that start with the given prefix.
+    public int numberOfMatches(String prefix) {
+        if (prefix == null)
+            throw new IllegalArgumentException("prefix is null!");
+
+        int[] range = shardsFor(prefix);
+        int n = 0;
+        for (int count : scatter(range[0], range[1], shard -> shard.numberOfMatches(prefix)))
+            n += count;
+        return n;
+    }
+
+    // a position in one shard's top-k list
+    private static class Cursor implements Comparable<Cursor> {
+        private final Term[] terms; // one shard's results, heaviest first
+        private int i; // index of the head
+
+        // creates a cursor at the first term
+        public Cursor(Term[] terms) {
+            this.terms = terms;
+        }
+
+        // returns the current term
+        public Term head() {
+            return terms[i];
+        }
+
+        // moves to the next term; returns false past the end
+        public boolean advance() {
+            return ++i < terms.length;
+        }
+
+        // compares heads by weight, then by reverse query order, so that
+        // ties come out in query order as in Autocomplete
+        public int compareTo(Cursor that) {
+            Term a = head();
+            Term b = that.head();
+            if (a.weight() != b.weight()) return Long.compare(a.weight(), b.weight());
+            return b.query().compareTo(a.query());
+        }
+    }
+
+    // Stops the query threads.
+    public void close() {
+        pool.shutdown();
+    }
+
+    // usage: java ShardedAutocomplete terms.txt k shards [-hash]
+    public static void main(String[] args) {
+        Term[] terms = TermLoader.load(args[0]);
+        int k = Integer.parseInt(args[1]);
+        int n = Integer.parseInt(args[2]);
+        boolean byHash = args.length > 3 && args[3].equals("-hash");
+
+        try (ShardedAutocomplete autocomplete = byHash ? byHash(terms, n) : byRange(terms, n)) {
+            while (StdIn.hasNextLine()) {
+                String prefix = StdIn.readLine();
+                Term[] results = autocomplete.topMatches(prefix, k);
+                StdOut.printf("%d matches\n", autocomplete.numberOfMatches(prefix));
+                for (int i = 0; i < results.length; i++)
+                    StdOut.println(results[i]);
+            }
+        }
+    }
+}
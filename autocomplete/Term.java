@@ -40,7 +40,7 @@ public class Term implements Comparable<Term> {
          * positive number. This results in reverse ordering by weight.
          */
         public int compare(Term t1, Term t2) {
-            return (int) (t2.weight - t1.weight);
+            return Long.compare(t2.weight, t1.weight);
         }
     }
 
@@ -98,6 +98,33 @@ public class Term implements Comparable<Term> {
         }
     }
 
+    // Compares the first r characters of this Term's query with the given
+    // prefix of length r, in the same order as byPrefixOrder(r), but without
+    // a dummy Term or a Comparator.
+    public int comparePrefix(String prefix) {
+        int r = prefix.length();
+        int length = query.length();
+        int min = length < r ? length : r;
+        for (int i = 0; i < min; i++) {
+            char c1 = query.charAt(i);
+            char c2 = prefix.charAt(i);
+            if (c1 != c2) return c1 - c2;
+        }
+
+        // a query shorter than the prefix sorts before it
+        return length < r ? -1 : 0;
+    }
+
+    // Returns the query string of this Term.
+    public String query() {
+        return query;
+    }
+
+    // Returns the weight of this Term.
+    public long weight() {
+        return weight;
+    }
+
     // Compares the two terms in lexicographic order by query.
     public int compareTo(Term that) {
         return query.compareTo(that.query);
@@ -129,6 +156,9 @@ public class Term implements Comparable<Term> {
         for (Term t : test1)
             StdOut.print(t.query + " "); // car do dogcatcher
         StdOut.println();
+        StdOut.println(t1.comparePrefix("dog") == 0); // true
+        StdOut.println(t2.comparePrefix("dog") < 0); // true
+        StdOut.println(t3.comparePrefix("dog") < 0); // true
     }
 
 }
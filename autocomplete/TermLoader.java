@@ -0,0 +1,195 @@
+/* *****************************************************************************
+ *  Name:    Nick Padmanabhan
+ *  NetID:   ntyp
+ *  Precept: P07
+ *
+ *  Description:  Loads a term file (a count, then one "weight<tab>query"
+ *  line per term) in parallel. The file is split into byte ranges at line
+ *  boundaries, and each range is memory-mapped and parsed on its own
+ *  thread, straight from the mapped bytes. Ranges are capped at 1 GB, since
+ *  one mapping cannot exceed 2 GB.
+ *
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.In;
+import edu.princeton.cs.algs4.StdOut;
+import edu.princeton.cs.algs4.Stopwatch;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+public class TermLoader {
+
+    private static final long MAX_RANGE = 1L << 30; // largest range per mapping
+    private static final int SCAN = 4096; // bytes read while seeking a newline
+
+    // Loads the terms of the given file on all available processors.
+    public static Term[] load(String filename) {
+        return load(filename, Runtime.getRuntime().availableProcessors());
+    }
+
+    // Loads the terms of the given file on the given number of threads.
+    public static Term[] load(String filename, int threads) {
+        if (filename == null)
+            throw new IllegalArgumentException("filename is null!");
+        if (threads <= 0)
+            throw new IllegalArgumentException("threads must be positive!");
+
+        try (FileChannel channel = FileChannel.open(Paths.get(filename),
+                                                    StandardOpenOption.READ)) {
+            long size = channel.size();
+            long start = nextLine(channel, 0); // skip the count
+            int n = parseCount(channel, start);
+
+            // splits the rest of the file into ranges that end at line breaks
+            int parts = (int) Math.max(threads, (size - start + MAX_RANGE - 1) / MAX_RANGE);
+            long[] bounds = new long[parts + 1];
+            bounds[0] = start;
+            for (int i = 1; i < parts; i++)
+                bounds[i] = Math.max(bounds[i - 1],
+                                     nextLine(channel, start + (size - start) * i / parts));
+            bounds[parts] = size;
+
+            // parses the ranges in parallel
+            List<Callable<List<Term>>> tasks = new ArrayList<Callable<List<Term>>>();
+            for (int i = 0; i < parts; i++) {
+                long lo = bounds[i];
+                long hi = bounds[i + 1];
+                tasks.add(() -> parse(channel.map(FileChannel.MapMode.READ_ONLY, lo, hi - lo)));
+            }
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                Term[] terms = new Term[n];
+                int count = 0;
+                for (Future<List<Term>> part : pool.invokeAll(tasks))
+                    for (Term t : part.get()) {
+                        if (count == n)
+                            throw new IllegalArgumentException("more than " + n + " terms!");
+                        terms[count++] = t;
+                    }
+                if (count != n)
+                    throw new IllegalArgumentException("expected " + n + " terms, found " + count + "!");
+                return terms;
+            } finally {
+                pool.shutdown();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while loading " + filename, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            if (e.getCause() instanceof IOException)
+                throw new UncheckedIOException((IOException) e.getCause());
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // returns the position just after the first newline at or after pos
+    private static long nextLine(FileChannel channel, long pos) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN);
+        while (true) {
+            buffer.clear();
+            int read = channel.read(buffer, pos);
+            if (read <= 0) return channel.size();
+            for (int i = 0; i < read; i++)
+                if (buffer.get(i) == '\n') return pos + i + 1;
+            pos += read;
+        }
+    }
+
+    // parses the count on the line that ends just before end
+    private static int parseCount(FileChannel channel, long end) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) end);
+        channel.read(buffer, 0);
+        String line = new String(buffer.array(), 0, (int) end, StandardCharsets.UTF_8);
+        return Integer.parseInt(line.trim());
+    }
+
+    // parses every "weight<tab>query" line of one mapped range
+    private static List<Term> parse(MappedByteBuffer buffer) {
+        List<Term> terms = new ArrayList<Term>();
+        byte[] query = new byte[256];
+        int limit = buffer.limit();
+        int pos = 0;
+        while (pos < limit) {
+            // skip leading blanks and empty lines
+            byte b = buffer.get(pos);
+            if (b == ' ' || b == '\n' || b == '\r') {
+                pos++;
+                continue;
+            }
+
+            long weight = 0;
+            while (pos < limit && (b = buffer.get(pos)) >= '0' && b <= '9') {
+                weight = 10 * weight + (b - '0');
+                pos++;
+            }
+            if (pos >= limit || buffer.get(pos) != '\t')
+                throw new IllegalArgumentException("malformed term line!");
+            pos++; // scan past the tab
+
+            int end = pos;
+            while (end < limit && buffer.get(end) != '\n') end++;
+            int length = end > pos && buffer.get(end - 1) == '\r' ? end - pos - 1 : end - pos;
+            if (length > query.length) query = new byte[Math.max(length, 2 * query.length)];
+            buffer.get(pos, query, 0, length);
+            terms.add(new Term(new String(query, 0, length, StandardCharsets.UTF_8), weight));
+            pos = end + 1;
+        }
+        return terms;
+    }
+
+    // reads the terms one at a time through In, as Autocomplete used to
+    private static Term[] readWithIn(String filename) {
+        In in = new In(filename);
+        int n = in.readInt();
+        Term[] terms = new Term[n];
+        for (int i = 0; i < n; i++) {
+            long weight = in.readLong();           // read the next weight
+            in.readChar();                         // scan past the tab
+            String query = in.readLine();          // read the next query
+            terms[i] = new Term(query, weight);    // construct the term
+        }
+        return terms;
+    }
+
+    // usage: java TermLoader terms.txt
+    // compares In with the loader on 1, 2, 4, ... threads, then builds an
+    // Autocomplete (which sorts with Arrays.parallelSort)
+    public static void main(String[] args) {
+        String filename = args[0];
+
+        Stopwatch s = new Stopwatch();
+        Term[] expected = readWithIn(filename);
+        StdOut.printf("In            %7.3f s\n", s.elapsedTime());
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= cores; threads *= 2) {
+            s = new Stopwatch();
+            Term[] terms = load(filename, threads);
+            StdOut.printf("%2d thread(s)  %7.3f s\n", threads, s.elapsedTime());
+            for (int i = 0; i < expected.length; i++)
+                if (!terms[i].toString().equals(expected[i].toString()))
+                    throw new IllegalStateException("term " + i + " differs from In!");
+        }
+
+        s = new Stopwatch();
+        new Autocomplete(expected);
+        StdOut.printf("Autocomplete  %7.3f s\n", s.elapsedTime());
+    }
+}
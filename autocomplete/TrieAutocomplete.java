@@ -0,0 +1,336 @@
+/* *****************************************************************************
+ *  Name:    Nick Padmanabhan
+ *  NetID:   ntyp
+ *  Precept: P07
+ *
+ *  Description:  Implements the Autocomplete API on a ternary search trie.
+ *  Every node stores the largest weight and the number of terms in its
+ *  subtree, so numberOfMatches() takes one walk down the prefix and
+ *  topMatches() is a best-first descent that stops after k terms.
+ *  fuzzyMatches() runs the same descent while carrying a row of the
+ *  Levenshtein table down each path, so it tolerates typos in the prefix.
+ *
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.MaxPQ;
+import edu.princeton.cs.algs4.StdOut;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+public class TrieAutocomplete {
+
+    private static final long NONE = -1; // weight of a node that ends no term
+    private static final int MAX_EDITS = 2; // largest supported edit distance
+    private static final int CLOCK_MASK = 63; // check the time budget every 64 steps
+
+    private Node root; // root of the trie
+    private long emptyWeight = NONE; // weight of the empty query, if any
+    private int size; // number of distinct queries
+
+    // a node of the trie; max and count cover the node, its mid subtree and
+    // its left and right siblings
+    private static class Node {
+        private final char c; // character of this node
+        private Node left, mid, right; // siblings and children
+        private long weight = NONE; // weight of the query ending here, if any
+        private long max = NONE; // largest weight in this subtree
+        private int count; // number of queries in this subtree
+
+        // creates a node for character c
+        public Node(char c) {
+            this.c = c;
+        }
+    }
+
+    // Initializes the data structure from the given array of terms. If a
+    // query appears more than once, its largest weight is kept.
+    public TrieAutocomplete(Term[] terms) {
+        if (terms == null)
+            throw new IllegalArgumentException("terms is null!");
+
+        Term[] sorted = new Term[terms.length];
+        for (int i = 0; i < terms.length; i++) {
+            if (terms[i] == null)
+                throw new IllegalArgumentException("a term is null!");
+
+            sorted[i] = terms[i];
+        }
+
+        // inserting medians first keeps the left/right links balanced
+        Arrays.sort(sorted);
+        insertMedians(sorted, 0, sorted.length - 1);
+    }
+
+    // inserts terms[lo..hi], middle term first
+    private void insertMedians(Term[] terms, int lo, int hi) {
+        if (lo > hi) return;
+        int mid = lo + (hi - lo) / 2;
+        insert(terms[mid].query(), terms[mid].weight());
+        insertMedians(terms, lo, mid - 1);
+        insertMedians(terms, mid + 1, hi);
+    }
+
+    // inserts a query, updating max and count along its path
+    private void insert(String query, long weight) {
+        if (query.isEmpty()) {
+            if (emptyWeight == NONE) size++;
+            emptyWeight = Math.max(emptyWeight, weight);
+            return;
+        }
+
+        boolean isNew = get(query) == NONE;
+        if (isNew) size++;
+
+        if (root == null) root = new Node(query.charAt(0));
+        Node x = root;
+        int d = 0;
+        while (true) {
+            x.max = Math.max(x.max, weight);
+            if (isNew) x.count++;
+
+            char c = query.charAt(d);
+            if (c < x.c) {
+                if (x.left == null) x.left = new Node(c);
+                x = x.left;
+            }
+            else if (c > x.c) {
+                if (x.right == null) x.right = new Node(c);
+                x = x.right;
+            }
+            else if (d < query.length() - 1) {
+                d++;
+                if (x.mid == null) x.mid = new Node(query.charAt(d));
+                x = x.mid;
+            }
+            else {
+                x.weight = Math.max(x.weight, weight);
+                return;
+            }
+        }
+    }
+
+    // returns the weight of the given query, or NONE
+    private long get(String query) {
+        Node x = find(query);
+        return x == null ? NONE : x.weight;
+    }
+
+    // returns the node of the last character of the given non-empty prefix
+    private Node find(String prefix) {
+        Node x = root;
+        int d = 0;
+        while (x != null) {
+            char c = prefix.charAt(d);
+            if (c < x.c) x = x.left;
+            else if (c > x.c) x = x.right;
+            else if (d < prefix.length() - 1) {
+                d++;
+                x = x.mid;
+            }
+            else return x;
+        }
+        return null;
+    }
+
+    // Returns all terms that start with the given prefix, in descending order
+    // of weight.
+    public Term[] allMatches(String prefix) {
+        return topMatches(prefix, numberOfMatches(prefix));
+    }
+
+    // Returns the number of terms that start with the given prefix.
+    public int numberOfMatches(String prefix) {
+        if (prefix == null)
+            throw new IllegalArgumentException("prefix is null!");
+
+        if (prefix.isEmpty()) return size;
+        Node x = find(prefix);
+        if (x == null) return 0;
+        return (x.weight == NONE ? 0 : 1) + (x.mid == null ? 0 : x.mid.count);
+    }
+
+    // Returns the k terms of largest weight that start with the given
+    // prefix, in descending order of weight.
+    public Term[] topMatches(String prefix, int k) {
+        if (prefix == null)
+            throw new IllegalArgumentException("prefix is null!");
+        if (k < 0)
+            throw new IllegalArgumentException("k is negative!");
+
+        // candidates are whole subtrees (keyed by their max) or single terms
+        MaxPQ<Candidate> pq = new MaxPQ<Candidate>();
+        if (prefix.isEmpty()) {
+            if (emptyWeight != NONE) pq.insert(new Candidate("", emptyWeight));
+            if (root != null) pq.insert(new Candidate(root, ""));
+        }
+        else {
+            Node x = find(prefix);
+            if (x != null && x.weight != NONE) pq.insert(new Candidate(prefix, x.weight));
+            if (x != null && x.mid != null) pq.insert(new Candidate(x.mid, prefix));
+        }
+
+        Term[] matches = new Term[k];
+        int n = 0;
+        while (n < k && !pq.isEmpty()) {
+            Candidate best = pq.delMax();
+            if (best.node == null) {
+                matches[n++] = new Term(best.query, best.key);
+                continue;
+            }
+
+            // expands a subtree into its siblings, its own term and its child
+            Node x = best.node;
+            String query = best.query + x.c;
+            if (x.left != null) pq.insert(new Candidate(x.left, best.query));
+            if (x.right != null) pq.insert(new Candidate(x.right, best.query));
+            if (x.weight != NONE) pq.insert(new Candidate(query, x.weight));
+            if (x.mid != null) pq.insert(new Candidate(x.mid, query));
+        }
+
+        return n == k ? matches : Arrays.copyOf(matches, n);
+    }
+
+    // Returns the k terms of largest weight that have a prefix within
+    // maxEdits (at most 2) insertions, deletions or substitutions of the
+    // given prefix, in descending order of weight. Stops after about
+    // budgetNanos and returns the heaviest matches found so far, which are
+    // always the first terms of the full answer.
+    public Term[] fuzzyMatches(String prefix, int maxEdits, int k, long budgetNanos) {
+        if (prefix == null)
+            throw new IllegalArgumentException("prefix is null!");
+        if (maxEdits < 0 || maxEdits > MAX_EDITS)
+            throw new IllegalArgumentException("maxEdits must be between 0 and 2!");
+        if (k < 0)
+            throw new IllegalArgumentException("k is negative!");
+
+        // within maxEdits of the empty string: every term matches
+        if (prefix.length() <= maxEdits) return topMatches("", k);
+
+        // row[j] = edit distance between the path so far and prefix[0..j)
+        int[] row = new int[prefix.length() + 1];
+        for (int j = 0; j < row.length; j++) row[j] = j;
+
+        MaxPQ<Candidate> pq = new MaxPQ<Candidate>();
+        if (root != null) pq.insert(new Candidate(root, "", row));
+
+        long deadline = System.nanoTime() + budgetNanos;
+        Term[] matches = new Term[k];
+        int n = 0;
+        for (int step = 0; n < k && !pq.isEmpty(); step++) {
+            if ((step & CLOCK_MASK) == 0 && System.nanoTime() - deadline > 0) break;
+
+            Candidate best = pq.delMax();
+            if (best.node == null) {
+                matches[n++] = new Term(best.query, best.key);
+                continue;
+            }
+
+            Node x = best.node;
+            String query = best.query + x.c;
+            if (best.row == null) {
+                // an accepted subtree: expand it as topMatches() does
+                if (x.left != null) pq.insert(new Candidate(x.left, best.query));
+                if (x.right != null) pq.insert(new Candidate(x.right, best.query));
+                if (x.weight != NONE) pq.insert(new Candidate(query, x.weight));
+                if (x.mid != null) pq.insert(new Candidate(x.mid, query));
+                continue;
+            }
+
+            // siblings extend the same path, so they share its row
+            if (x.left != null) pq.insert(new Candidate(x.left, best.query, best.row));
+            if (x.right != null) pq.insert(new Candidate(x.right, best.query, best.row));
+
+            int[] next = nextRow(best.row, x.c, prefix);
+            if (next[prefix.length()] <= maxEdits) {
+                // query is within reach of prefix: accept all its completions
+                if (x.weight != NONE) pq.insert(new Candidate(query, x.weight));
+                if (x.mid != null) pq.insert(new Candidate(x.mid, query));
+            }
+            else if (x.mid != null && min(next) <= maxEdits) {
+                pq.insert(new Candidate(x.mid, query, next));
+            }
+        }
+
+        return n == k ? matches : Arrays.copyOf(matches, n);
+    }
+
+    // returns the Levenshtein row after appending c to the path of row
+    private static int[] nextRow(int[] row, char c, String prefix) {
+        int[] next = new int[row.length];
+        next[0] = row[0] + 1;
+        for (int j = 1; j < row.length; j++) {
+            int substitute = row[j - 1] + (prefix.charAt(j - 1) == c ? 0 : 1);
+            next[j] = Math.min(substitute, Math.min(row[j], next[j - 1]) + 1);
+        }
+        return next;
+    }
+
+    // returns the smallest entry of row; once it passes maxEdits no
+    // extension of the path can come back within reach
+    private static int min(int[] row) {
+        int min = row[0];
+        for (int j = 1; j < row.length; j++) min = Math.min(min, row[j]);
+        return min;
+    }
+
+    // a subtree of the trie under a query prefix, or a single term; fuzzy
+    // subtrees also carry the Levenshtein row of their prefix
+    private static class Candidate implements Comparable<Candidate> {
+        private final Node node; // subtree root, or null for a single term
+        private final String query; // prefix before node, or the term's query
+        private final long key; // subtree max, or the term's weight
+        private final int[] row; // Levenshtein row of query, or null
+
+        // creates a subtree candidate
+        public Candidate(Node node, String prefix) {
+            this(node, prefix, null);
+        }
+
+        // creates a fuzzy subtree candidate
+        public Candidate(Node node, String prefix, int[] row) {
+            this.node = node;
+            this.query = prefix;
+            this.key = node.max;
+            this.row = row;
+        }
+
+        // creates a single-term candidate
+        public Candidate(String query, long weight) {
+            this.node = null;
+            this.query = query;
+            this.key = weight;
+            this.row = null;
+        }
+
+        // compares candidates by key
+        public int compareTo(Candidate that) {
+            return Long.compare(key, that.key);
+        }
+    }
+
+    // unit testing
+    public static void main(String[] args) {
+        Term[] terms = {
+                new Term("dogcatcher", 1500), new Term("do", 3000),
+                new Term("car", 4500), new Term("dog", 2000),
+                new Term("cart", 100), new Term("", 7)
+        };
+        TrieAutocomplete trie = new TrieAutocomplete(terms);
+        StdOut.println(trie.numberOfMatches("do")); // 3
+        StdOut.println(trie.numberOfMatches("ca")); // 2
+        StdOut.println(trie.numberOfMatches("")); // 6
+        StdOut.println(trie.numberOfMatches("x")); // 0
+        for (Term t : trie.topMatches("do", 2))
+            StdOut.println(t); // 3000 do, 2000 dog
+        Comparator<Term> cmp = Term.byReverseWeightOrder();
+        Term[] all = trie.allMatches("");
+        for (int i = 1; i < all.length; i++)
+            if (cmp.compare(all[i - 1], all[i]) > 0) StdOut.println("out of order!");
+        StdOut.println(all[0]); // 4500 car
+        for (Term t : trie.fuzzyMatches("dpg", 1, 3, Long.MAX_VALUE))
+            StdOut.println(t); // 2000 dog, 1500 dogcatcher
+        for (Term t : trie.fuzzyMatches("cat", 1, 3, Long.MAX_VALUE))
+            StdOut.println(t); // 4500 car, 100 cart
+    }
+}
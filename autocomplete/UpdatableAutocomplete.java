@@ -0,0 +1,321 @@
+/* *****************************************************************************
+ *  Name:    Nick Padmanabhan
+ *  NetID:   ntyp
+ *  Precept: P07
+ *
+ *  Description:  An Autocomplete index that accepts weight changes and new
+ *  terms while it serves queries, in the style of a log-structured merge
+ *  tree. An immutable sorted base (an Autocomplete) is overlaid by a small
+ *  sorted delta (a ConcurrentSkipListMap) that takes every update at once;
+ *  queries merge the two. A background thread compacts the delta into a new
+ *  base by one linear merge, then swaps it in without pausing queries.
+ *
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.MinPQ;
+import edu.princeton.cs.algs4.StdOut;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+
+public class UpdatableAutocomplete implements AutoCloseable {
+
+    private static final int MIN_DELTA = 1024; // smallest delta worth compacting
+    private static final long CHECK_MILLIS = 200; // compaction check interval
+
+    // heaviest first, ties in query order (as Autocomplete.topMatches())
+    private static final Comparator<Term> BY_WEIGHT = new Comparator<Term>() {
+        public int compare(Term t1, Term t2) {
+            if (t1.weight() != t2.weight()) return Long.compare(t2.weight(), t1.weight());
+            return t1.query().compareTo(t2.query());
+        }
+    };
+
+    // one consistent view of the segments; replaced, never modified
+    private static class Segments {
+        private final Autocomplete base; // immutable sorted base
+        private final ConcurrentSkipListMap<String, Long> frozen; // being compacted, or null
+        private final ConcurrentSkipListMap<String, Long> active; // takes new updates
+
+        // creates a view of the given segments
+        public Segments(Autocomplete base, ConcurrentSkipListMap<String, Long> frozen,
+                        ConcurrentSkipListMap<String, Long> active) {
+            this.base = base;
+            this.frozen = frozen;
+            this.active = active;
+        }
+    }
+
+    private volatile Segments segments; // current view, read without locking
+    private final ReadWriteLock lock = new ReentrantReadWriteLock(); // updates vs. swaps
+    private final Object compaction = new Object(); // one compaction at a time
+    private final int maxDelta; // delta size that triggers a compaction
+    private final ScheduledExecutorService compactor; // background compaction
+    private volatile Throwable compactionFailure; // last background failure, or null
+
+    // Initializes the index from the given terms, compacting in the
+    // background whenever the delta holds maxDelta updates.
+    public UpdatableAutocomplete(Term[] terms, int maxDelta) {
+        if (maxDelta <= 0)
+            throw new IllegalArgumentException("maxDelta must be positive!");
+
+        this.maxDelta = maxDelta;
+        segments = new Segments(new Autocomplete(terms), null,
+                                new ConcurrentSkipListMap<String, Long>());
+        compactor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "autocomplete-compactor");
+            t.setDaemon(true);
+            return t;
+        });
+        compactor.scheduleWithFixedDelay(this::compactIfNeeded, CHECK_MILLIS, CHECK_MILLIS,
+                                         TimeUnit.MILLISECONDS);
+    }
+
+    // Initializes the index from the given terms, compacting once the delta
+    // reaches about 1/64 of the base.
+    public UpdatableAutocomplete(Term[] terms) {
+        this(terms, Math.max(MIN_DELTA, terms == null ? 0 : terms.length / 64));
+    }
+
+    // Sets the weight of the query, inserting it if it is new. The change is
+    // visible to queries as soon as this returns.
+    public void put(String query, long weight) {
+        if (query == null)
+            throw new IllegalArgumentException("query is null!");
+        if (weight < 0)
+            throw new IllegalArgumentException("weight is negative!");
+
+        // the read lock keeps a compaction from freezing the delta mid-update
+        lock.readLock().lock();
+        try {
+            segments.active.put(query, weight);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Returns all terms that start with the given prefix, in descending order
+    // of weight.
+    public Term[] allMatches(String prefix) {
+        return topMatches(prefix, numberOfMatches(prefix));
+    }
+
+    // Returns the k terms of largest weight that start with the given
+    // prefix, in descending order of weight.
+    public Term[] topMatches(String prefix, int k) {
+        if (prefix == null)
+            throw new IllegalArgumentException("prefix is null!");
+        if (k < 0)
+            throw new IllegalArgumentException("k is negative!");
+
+        // the base goes first: an update that lands between the two passes is
+        // then seen by the delta pass, and its stale base term dropped here
+        Segments s = segments;
+        List<Term> base = baseTop(s, prefix, k);
+        Term[] delta = deltaTop(s, prefix, k);
+        HashSet<String> updated = new HashSet<String>();
+        for (Term t : delta) updated.add(t.query());
+
+        List<Term> matches = new ArrayList<Term>(Arrays.asList(delta));
+        for (Term t : base)
+            if (!updated.contains(t.query())) matches.add(t);
+        matches.sort(BY_WEIGHT);
+        return matches.subList(0, Math.min(k, matches.size())).toArray(new Term[0]);
+    }
+
+    // returns the base's k heaviest matches that the delta does not override;
+    // each round asks the base for k more terms than the overridden ones seen
+    // so far, so with few overrides among the top terms one round suffices
+    private static List<Term> baseTop(Segments s, String prefix, int k) {
+        List<Term> kept = new ArrayList<Term>();
+        if (k == 0) return kept;
+        int want = k;
+        while (true) {
+            Term[] top = s.base.topMatches(prefix, want);
+            kept.clear();
+            for (Term t : top)
+                if (!overridden(s, t.query())) kept.add(t);
+            if (kept.size() >= k || top.length < want) return kept;
+            want = (int) Math.min(Integer.MAX_VALUE, (long) k + top.length - kept.size());
+        }
+    }
+
+    // returns the delta's k heaviest matches, heaviest first, kept in a
+    // bounded heap as the matching entries stream past
+    private static Term[] deltaTop(Segments s, String prefix, int k) {
+        if (k == 0) return new Term[0];
+        MinPQ<Term> heap = new MinPQ<Term>(BY_WEIGHT.reversed()); // lightest on top
+        forEachMatch(s, prefix, (query, weight) -> {
+            heap.insert(new Term(query, weight));
+            if (heap.size() > k) heap.delMin();
+        });
+
+        Term[] top = new Term[heap.size()];
+        for (int i = top.length - 1; i >= 0; i--) top[i] = heap.delMin();
+        return top;
+    }
+
+    // does the delta hold a newer weight for the query?
+    private static boolean overridden(Segments s, String query) {
+        return s.active.containsKey(query) || s.frozen != null && s.frozen.containsKey(query);
+    }
+
+    // Returns the number of terms that start with the given prefix.
+    public int numberOfMatches(String prefix) {
+        if (prefix == null)
+            throw new IllegalArgumentException("prefix is null!");
+
+        Segments s = segments;
+        int[] n = { s.base.numberOfMatches(prefix) };
+        forEachMatch(s, prefix, (query, weight) -> {
+            if (!s.base.contains(query)) n[0]++;
+        });
+        return n[0];
+    }
+
+    // visits the newest weight of every delta entry that starts with prefix,
+    // walking views of the skip lists rather than copying them
+    private static void forEachMatch(Segments s, String prefix, BiConsumer<String, Long> action) {
+        for (Map.Entry<String, Long> e : s.active.tailMap(prefix).entrySet()) {
+            if (!e.getKey().startsWith(prefix)) break;
+            action.accept(e.getKey(), e.getValue());
+        }
+        if (s.frozen == null) return;
+        for (Map.Entry<String, Long> e : s.frozen.tailMap(prefix).entrySet()) {
+            if (!e.getKey().startsWith(prefix)) break;
+            if (!s.active.containsKey(e.getKey())) action.accept(e.getKey(), e.getValue());
+        }
+    }
+
+    // compacts if the delta has grown past maxDelta; a failure is reported
+    // and kept for compactionFailure() rather than thrown, since a throw
+    // would cancel the schedule and stop every later compaction
+    private void compactIfNeeded() {
+        try {
+            if (segments.active.size() >= maxDelta) {
+                compact();
+                compactionFailure = null;
+            }
+        } catch (RuntimeException | Error e) {
+            compactionFailure = e;
+            StdOut.println("compaction failed: " + e);
+        }
+    }
+
+    // Returns the error that made the last background compaction fail, or
+    // null if it succeeded (or none has run).
+    public Throwable compactionFailure() {
+        return compactionFailure;
+    }
+
+    // Merges every update so far into a new base. Queries and updates keep
+    // running during the merge; they only wait for the two pointer swaps.
+    public void compact() {
+        synchronized (compaction) {
+            // freeze the delta and start a new one
+            Segments s;
+            lock.writeLock().lock();
+            try {
+                s = segments;
+                if (s.active.isEmpty()) return;
+                segments = new Segments(s.base, s.active,
+                                        new ConcurrentSkipListMap<String, Long>());
+                s = segments;
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            Autocomplete base;
+            try {
+                base = new Autocomplete(merge(s.base.terms(), s.frozen));
+            } catch (RuntimeException | Error e) {
+                thaw();
+                throw e;
+            }
+
+            // swap in the new base and drop the frozen delta
+            lock.writeLock().lock();
+            try {
+                segments = new Segments(base, null, segments.active);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    // puts the frozen delta back into the active one after a failed merge, so
+    // that the next compaction retries it; updates made since the freeze are
+    // newer and win
+    private void thaw() {
+        lock.writeLock().lock();
+        try {
+            Segments s = segments;
+            for (Map.Entry<String, Long> e : s.frozen.entrySet())
+                s.active.putIfAbsent(e.getKey(), e.getValue());
+            segments = new Segments(s.base, null, s.active);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // merges the sorted base with the sorted delta in one linear pass, the
+    // delta's weights replacing the base's
+    private static Term[] merge(Term[] base, ConcurrentSkipListMap<String, Long> delta) {
+        List<Term> merged = new ArrayList<Term>(base.length + delta.size());
+        int i = 0;
+        for (Map.Entry<String, Long> e : delta.entrySet()) {
+            String query = e.getKey();
+            while (i < base.length && base[i].query().compareTo(query) < 0)
+                merged.add(base[i++]);
+            while (i < base.length && base[i].query().equals(query)) i++; // and duplicates
+            merged.add(new Term(query, e.getValue()));
+        }
+        while (i < base.length) merged.add(base[i++]);
+
+        // already sorted, so Autocomplete's sort is a single linear pass
+        return merged.toArray(new Term[0]);
+    }
+
+    // Returns the number of updates not yet compacted into the base.
+    public int deltaSize() {
+        Segments s = segments;
+        return s.active.size() + (s.frozen == null ? 0 : s.frozen.size());
+    }
+
+    // Stops background compaction.
+    public void close() {
+        compactor.shutdownNow();
+    }
+
+    // unit testing
+    public static void main(String[] args) {
+        Term[] terms = {
+                new Term("dogcatcher", 1500), new Term("do", 3000),
+                new Term("car", 4500), new Term("dog", 2000),
+                new Term("cart", 100)
+        };
+        try (UpdatableAutocomplete index = new UpdatableAutocomplete(terms, 2)) {
+            index.put("dogma", 2500); // insert
+            index.put("do", 10); // weight change
+            StdOut.println(index.numberOfMatches("do")); // 4
+            StdOut.println(Arrays.toString(index.topMatches("do", 2))); // [2500	dogma, 2000	dog]
+
+            index.compact();
+            StdOut.println(index.deltaSize()); // 0
+            index.put("cat", 5000);
+            StdOut.println(Arrays.toString(index.topMatches("", 3))); // [5000	cat, 4500	car, 2500	dogma]
+            StdOut.println(index.numberOfMatches("")); // 7
+        }
+    }
+}
@@ -15,18 +15,15 @@ import edu.princeton.cs.algs4.StdOut;
 
 public class CircularSuffixArray {
 
-    private static final int CUTOFF = 6; // cutoff to insertion sort
-
     private final int len; // length of the original String
-    private int[] ind; // original indices of each circular suffix
+    private final int[] ind; // original indices of each circular suffix
 
     // circular suffix array of s
     public CircularSuffixArray(String s) {
         if (s == null) throw new IllegalArgumentException("null s");
         len = s.length();
         ind = new int[len];
-        for (int i = 0; i < len; i++) ind[i] = i;
-        sort(s, 0, len - 1, 0); // by suffixes
+        sort(s); // by suffixes
     }
 
     // length of s
@@ -40,68 +37,79 @@ public class CircularSuffixArray {
         return ind[i];
     }
 
-    /* @citation Adapted from: https://algs4.cs.princeton.edu/code/edu/
-       princeton/cs/algs4/Quick3string.java.html. Accessed 04/17/2020. */
-
-    // sorts the inidices array based on its corresponding circular suffixes
-    private void sort(String s, int lo, int hi, int d) {
-        // base case for unary strings
-        if (lo + d >= 2 * len || hi + d >= 2 * len) return;
-
-        // cutoff to insertion sort for small subarrays
-        if (hi <= lo + CUTOFF) {
-            insertion(s, lo, hi, d);
-            return;
+    // sorts the indices array based on its corresponding circular suffixes
+    // by prefix doubling: once the suffixes are sorted by their first h
+    // chars, with class[i] the rank of suffix i among those prefixes, the
+    // order by the first 2h chars is the order by the pair (class[i],
+    // class[i + h]). Each round is two passes of key-indexed counting, so
+    // the sort takes O(n log n) time whatever the input, where comparing
+    // chars one at a time goes quadratic on repetitive input (runs of one
+    // char, repeated lines). It stops early once all classes differ.
+    // Equal rotations (of a periodic s) are ordered by start index.
+    private void sort(String s) {
+        if (len == 0) return;
+        int[] cls = new int[len]; // class of each suffix
+        int[] next = new int[len]; // scratch for the next order and classes
+
+        // round 0: key-indexed counting by first char
+        int r = 0;
+        for (int i = 0; i < len; i++) r = Math.max(r, s.charAt(i) + 1);
+        int[] count = new int[Math.max(r, len) + 1];
+        for (int i = 0; i < len; i++) count[s.charAt(i) + 1]++;
+        for (int c = 0; c < r; c++) count[c + 1] += count[c];
+        for (int i = 0; i < len; i++) ind[count[s.charAt(i)]++] = i;
+        int classes = 1;
+        cls[ind[0]] = 0;
+        for (int i = 1; i < len; i++) {
+            if (s.charAt(ind[i]) != s.charAt(ind[i - 1])) classes++;
+            cls[ind[i]] = classes - 1;
         }
 
-        int lt = lo;
-        int gt = hi;
-        int v = s.charAt((ind[lo] + d) % len);
-        int i = lo + 1;
-
-        while (i <= gt) {
-            // retrieve dth char, treating s as a circular string
-            int t = s.charAt((ind[i] + d) % len);
-            if (t < v) exch(lt++, i++);
-            else if (t > v) exch(i, gt--);
-            else i++;
+        for (int h = 1; h < len && classes < len; h *= 2) {
+            // suffix i - h sorted by class[i], i.e. by its second half, is
+            // the order of the suffixes by their second halves
+            for (int i = 0; i < len; i++) next[i] = ind[i] >= h ? ind[i] - h : ind[i] - h + len;
+
+            // stable key-indexed counting by first half
+            for (int c = 0; c <= classes; c++) count[c] = 0;
+            for (int i = 0; i < len; i++) count[cls[i] + 1]++;
+            for (int c = 0; c < classes; c++) count[c + 1] += count[c];
+            for (int i = 0; i < len; i++) ind[count[cls[next[i]]]++] = next[i];
+
+            // new classes: a suffix starts a class if its pair differs from
+            // the pair of the suffix before it
+            next[ind[0]] = 0;
+            classes = 1;
+            for (int i = 1; i < len; i++) {
+                int v = ind[i];
+                int w = ind[i - 1];
+                if (cls[v] != cls[w] || cls[(v + h) % len] != cls[(w + h) % len]) classes++;
+                next[v] = classes - 1;
+            }
+            int[] temp = cls;
+            cls = next;
+            next = temp;
         }
 
-        sort(s, lo, lt - 1, d);
-        sort(s, lt, gt, d + 1);
-        sort(s, gt + 1, hi, d);
-    }
-
-    // sort from a[lo] to a[hi], starting at the dth character
-    private void insertion(String s, int lo, int hi, int d) {
-        for (int i = lo; i <= hi; i++)
-            for (int j = i; j > lo && less(s, ind[j], ind[j - 1], d); j--)
-                exch(j, j - 1);
-    }
-
-    // exchange ind[i] and ind[j]
-    private void exch(int i, int j) {
-        int temp = ind[i];
-        ind[i] = ind[j];
-        ind[j] = temp;
-    }
-
-    // is v less than w, starting at character d
-    private boolean less(String s, int v, int w, int d) {
-        for (int i = d; i < len; i++) {
-            if (s.charAt((v + i) % len) < s.charAt((w + i) % len)) return true;
-            if (s.charAt((v + i) % len) > s.charAt((w + i) % len)) return false;
+        // equal rotations share a class; one stable pass over the indices in
+        // increasing order puts each class's members in start-index order
+        if (classes < len) {
+            for (int c = 0; c <= classes; c++) count[c] = 0;
+            for (int i = 0; i < len; i++) count[cls[i] + 1]++;
+            for (int c = 0; c < classes; c++) count[c + 1] += count[c];
+            for (int i = 0; i < len; i++) ind[count[cls[i]]++] = i;
         }
-        return false;
     }
 
-    /* @end-citation */
-
     // unit testing
     public static void main(String[] args) {
         CircularSuffixArray c = new CircularSuffixArray("ABRACADABRA!");
         StdOut.println(c.length()); // 12
         for (int i = 0; i < c.length(); i++)
             StdOut.println(c.index(i)); // 11 10 7 0 3 5 8 1 4 6 9 2
+        c = new CircularSuffixArray("ABAB");
+        for (int i = 0; i < c.length(); i++)
+            StdOut.print(c.index(i) + " "); // 0 2 1 3 (equal rotations by index)
+        StdOut.println();
     }
 }
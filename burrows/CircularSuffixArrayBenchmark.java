@@ -0,0 +1,95 @@
+/* *****************************************************************************
+ *  Name:    Nick Padmanabhan
+ *  NetID:   ntyp
+ *  Precept: P07
+ *
+ *  Partner Name:    Byron Zhang
+ *  Partner NetID:   zishuoz
+ *  Partner Precept: P05
+ *
+ *  Description:  Times the construction of CircularSuffixArray on inputs
+ *  that defeat char-by-char suffix comparison: a run of zeros, one log line
+ *  repeated, a period-2 string and a Fibonacci word (repetitive but never
+ *  periodic), against random DNA and random bytes as the easy cases. Each
+ *  line reports the best of a few builds and the time per char.
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdOut;
+
+import java.util.Random;
+
+public class CircularSuffixArrayBenchmark {
+
+    private static final int ROUNDS = 3; // builds per input (the first warms up)
+
+    // returns n zero chars
+    private static String zeros(int n) {
+        return new String(new char[n]);
+    }
+
+    // returns the first n chars of one log line repeated
+    private static String repeatedLines(int n) {
+        String line = "2020-04-17 12:00:00 INFO request served in 3 ms\n";
+        StringBuilder sb = new StringBuilder(n + line.length());
+        while (sb.length() < n) sb.append(line);
+        sb.setLength(n);
+        return sb.toString();
+    }
+
+    // returns the first n chars of abab...
+    private static String periodTwo(int n) {
+        char[] a = new char[n];
+        for (int i = 0; i < n; i++) a[i] = i % 2 == 0 ? 'a' : 'b';
+        return new String(a);
+    }
+
+    // returns the first n chars of the Fibonacci word, built in place as
+    // f(k) = f(k - 1) f(k - 2)
+    private static String fibonacci(int n) {
+        StringBuilder sb = new StringBuilder("ab");
+        int previous = 1; // length of f(k - 2)
+        while (sb.length() < n) {
+            int length = sb.length();
+            sb.append(sb, 0, previous);
+            previous = length;
+        }
+        sb.setLength(n);
+        return sb.toString();
+    }
+
+    // returns n random chars from the given alphabet
+    private static String random(int n, String alphabet, long seed) {
+        Random random = new Random(seed);
+        char[] a = new char[n];
+        for (int i = 0; i < n; i++) a[i] = alphabet.charAt(random.nextInt(alphabet.length()));
+        return new String(a);
+    }
+
+    // builds the suffix array of s ROUNDS times and prints the fastest build
+    private static void bench(String name, String s) {
+        long best = Long.MAX_VALUE;
+        long sink = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            CircularSuffixArray csa = new CircularSuffixArray(s);
+            best = Math.min(best, System.nanoTime() - start);
+            sink += csa.index(csa.length() / 2);
+        }
+        StdOut.printf("%-16s n = %,11d   %8.3f s   %6.1f ns/char   (checksum %d)\n",
+                      name, s.length(), best / 1e9, (double) best / s.length(), sink);
+    }
+
+    // usage: java CircularSuffixArrayBenchmark [n]
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        StringBuilder bytes = new StringBuilder();
+        for (char c = 0; c < 256; c++) bytes.append(c);
+
+        bench("zeros", zeros(n));
+        bench("repeated lines", repeatedLines(n));
+        bench("period 2", periodTwo(n));
+        bench("fibonacci", fibonacci(n));
+        bench("random DNA", random(n, "ACGT", 25));
+        bench("random bytes", random(n, bytes.toString(), 25));
+    }
+}
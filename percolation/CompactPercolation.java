@@ -0,0 +1,176 @@
+/* *****************************************************************************
+ *  Name:    Nick Padmanabhan
+ *  NetID:   ntyp
+ *  Precept: P07
+ *
+ *  Description: Memory-compact version of Percolation for very large grids.
+ *  Open sites live in a long[] bitset and the union-find is kept in-class as
+ *  segmented int[] parent links with path halving, about 4.1 bytes per site
+ *  instead of 9+. Sites are long-indexed, so grids up to n = 65535 (more
+ *  than 2^31 sites) are supported.
+ *
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdOut;
+
+public class CompactPercolation {
+
+    private static final int MAX_N = 65535; // n * n + 2 must fit in 32 bits
+    private static final int SEGMENT_BITS = 24; // 2^24 parent links per segment
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_BITS;
+    private static final long SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    private final long[] open; // bitset of open sites
+    private final int[][] parent; // segmented parent links, XOR-ed with the site
+    private final int n;  // number of rows and columns in the grid
+    private final long top; // virtual water source
+    private final long bottom; // virtual water terminus
+    private long numOpenSites = 0; // keeps track of the number of open sites
+
+    // creates n-by-n grid, with all sites initially blocked
+    public CompactPercolation(int n) {
+        if (n <= 0) throw new IllegalArgumentException("n must be a positive integer!");
+        if (n > MAX_N) throw new IllegalArgumentException("n must be at most " + MAX_N);
+
+        this.n = n;
+        top = (long) n * n;
+        bottom = top + 1;
+        open = new long[(int) ((top + 63) >>> 6)];
+
+        // a zero entry means the site is its own root, so the freshly
+        // allocated segments need no initialization pass
+        long sites = top + 2;
+        int segments = (int) ((sites + SEGMENT_SIZE - 1) >>> SEGMENT_BITS);
+        parent = new int[segments][];
+        for (int s = 0; s < segments; s++) {
+            long remaining = sites - ((long) s << SEGMENT_BITS);
+            parent[s] = new int[(int) Math.min(SEGMENT_SIZE, remaining)];
+        }
+    }
+
+    // opens the site (row, col) if it is not open already
+    public void open(int row, int col) {
+        checkValidLocation(row, col);
+        long i = to1D(row, col);
+
+        // checks if the site is already open
+        if (isOpen(i)) return;
+
+        // opens the site
+        open[(int) (i >>> 6)] |= 1L << i;
+
+        // links to adjacent open sites
+        if (row > 0 && isOpen(i - n)) union(i, i - n); // up
+        if (row < n - 1 && isOpen(i + n)) union(i, i + n); // down
+        if (col > 0 && isOpen(i - 1)) union(i, i - 1); // left
+        if (col < n - 1 && isOpen(i + 1)) union(i, i + 1); // right
+
+        // links to the water source/terminus sites if the cell is on the
+        // top or bottom rows
+        if (row == 0) union(i, top); // link to source
+        if (row == n - 1) union(i, bottom); // link to terminus
+
+        numOpenSites++;
+    }
+
+    // is the site (row, col) open?
+    public boolean isOpen(int row, int col) {
+        checkValidLocation(row, col);
+        return isOpen(to1D(row, col));
+    }
+
+    // is the site (row, col) full?
+    public boolean isFull(int row, int col) {
+        checkValidLocation(row, col);
+        long i = to1D(row, col);
+        return isOpen(i) && find(i) == find(top);
+    }
+
+    // returns the number of open sites; throws an ArithmeticException if it
+    // does not fit in an int (use numberOfOpenSitesLong() for huge grids)
+    public int numberOfOpenSites() {
+        return Math.toIntExact(numOpenSites);
+    }
+
+    // returns the number of open sites as a long
+    public long numberOfOpenSitesLong() {
+        return numOpenSites;
+    }
+
+    // does the system percolate?
+    public boolean percolates() {
+        return find(top) == find(bottom);
+    }
+
+    // is the site at 1D index i open?
+    private boolean isOpen(long i) {
+        return (open[(int) (i >>> 6)] & (1L << i)) != 0;
+    }
+
+    // returns the parent of site i
+    private long parentOf(long i) {
+        int link = parent[(int) (i >>> SEGMENT_BITS)][(int) (i & SEGMENT_MASK)];
+        return i ^ Integer.toUnsignedLong(link);
+    }
+
+    // sets the parent of site i to p
+    private void setParent(long i, long p) {
+        parent[(int) (i >>> SEGMENT_BITS)][(int) (i & SEGMENT_MASK)] = (int) (i ^ p);
+    }
+
+    // finds the root of site i, pointing every other site on the path at its
+    // grandparent (path halving)
+    private long find(long i) {
+        long p = parentOf(i);
+        while (p != i) {
+            long gp = parentOf(p);
+            setParent(i, gp);
+            i = gp;
+            p = parentOf(i);
+        }
+        return i;
+    }
+
+    // links the components of sites i and j; the root with the smaller index
+    // goes under the other, so the virtual sites always stay roots
+    private void union(long i, long j) {
+        long ri = find(i);
+        long rj = find(j);
+        if (ri == rj) return;
+        if (ri < rj) setParent(ri, rj);
+        else setParent(rj, ri);
+    }
+
+    // converts a (row, col) location to a 1D index
+    private long to1D(int row, int col) {
+        return (long) n * row + col;
+    }
+
+    // checks if a given (row, col) resides within the system grid
+    private void checkValidLocation(int row, int col) {
+        if (row < 0 || row >= n || col < 0 || col >= n)
+            throw new IllegalArgumentException("Invalid (row, col) index");
+    }
+
+    // unit testing
+    public static void main(String[] args) {
+        CompactPercolation p = new CompactPercolation(4);
+
+        StdOut.println(p.to1D(2, 2)); // 10
+        StdOut.println(p.isOpen(2, 2)); // false
+        p.open(2, 2);
+        StdOut.println(p.isOpen(2, 2)); // true
+        StdOut.println(p.find(10) == p.find(6)); // false
+        p.open(1, 2);
+        StdOut.println(p.find(10) == p.find(6)); // true
+        StdOut.println(p.isFull(2, 2)); // false
+        StdOut.println(p.percolates()); // false
+        StdOut.println(p.numberOfOpenSites()); // 2
+        p.open(0, 2);
+        p.open(3, 2);
+        StdOut.println(p.numberOfOpenSites()); // 4
+        StdOut.println(p.isFull(2, 2)); // true
+        StdOut.println(p.isFull(3, 2)); // true
+        StdOut.println(p.percolates()); // true
+    }
+}
@@ -0,0 +1,239 @@
+/* *****************************************************************************
+ *  Name:    Nick Padmanabhan
+ *  NetID:   ntyp
+ *  Precept: P07
+ *
+ *  Description: Thread-safe version of Percolation on which many threads may
+ *  open sites at once. Open sites live in an atomic bitmap and connectivity
+ *  in a lock-free union-find (Anderson-Woll): each entry packs a parent link
+ *  and a rank into one long that is only changed by compare-and-set, roots
+ *  are linked by (rank, index), and finds use CAS path halving.
+ *
+ *  isFull() and percolates() are linearizable: each answers for a state
+ *  that includes every open() that returned before the call started.
+ *
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdOut;
+import edu.princeton.cs.algs4.Stopwatch;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public class ConcurrentPercolation {
+
+    private static final long PARENT_MASK = 0xFFFFFFFFL; // low half of an entry
+
+    private final AtomicLongArray open; // bitset of open sites
+    private final AtomicLongArray uf; // rank << 32 | parent, per site
+    private final int n;  // number of rows and columns in the grid
+    private final LongAdder numOpenSites = new LongAdder(); // number of open sites
+
+    // creates n-by-n grid, with all sites initially blocked
+    public ConcurrentPercolation(int n) {
+        if (n <= 0) throw new IllegalArgumentException("n must be a positive integer!");
+
+        // uf has +2 indices for the virtual sites
+        // location n * n is the water source
+        // location n * n + 1 is the water terminus
+        uf = new AtomicLongArray(n * n + 2);
+        for (int i = 0; i < n * n + 2; i++) uf.set(i, i);
+        open = new AtomicLongArray((n * n + 63) >>> 6);
+        this.n = n;
+    }
+
+    // opens the site (row, col) if it is not open already; exactly one of
+    // several threads opening the same site does the work
+    public void open(int row, int col) {
+        checkValidLocation(row, col);
+        int i = to1D(row, col);
+
+        // atomically sets the open bit; returns if it was already set
+        long bit = 1L << i;
+        long prev = open.getAndAccumulate(i >>> 6, bit, (a, b) -> a | b);
+        if ((prev & bit) != 0) return;
+
+        // links to adjacent open sites; of two neighbors opened at the same
+        // time, at least one sees the other's bit and links them
+        if (row > 0 && isOpen(i - n)) union(i, i - n); // up
+        if (row < n - 1 && isOpen(i + n)) union(i, i + n); // down
+        if (col > 0 && isOpen(i - 1)) union(i, i - 1); // left
+        if (col < n - 1 && isOpen(i + 1)) union(i, i + 1); // right
+
+        // links to the water source/terminus sites if the cell is on the
+        // top or bottom rows
+        if (row == 0) union(i, n * n); // link to source
+        if (row == n - 1) union(i, n * n + 1); // link to terminus
+
+        numOpenSites.increment();
+    }
+
+    // is the site (row, col) open?
+    public boolean isOpen(int row, int col) {
+        checkValidLocation(row, col);
+        return isOpen(to1D(row, col));
+    }
+
+    // is the site (row, col) full?
+    public boolean isFull(int row, int col) {
+        checkValidLocation(row, col);
+        int i = to1D(row, col);
+        return isOpen(i) && connected(i, n * n);
+    }
+
+    // returns the number of open sites
+    public int numberOfOpenSites() {
+        return numOpenSites.intValue();
+    }
+
+    // does the system percolate?
+    public boolean percolates() {
+        return connected(n * n, n * n + 1);
+    }
+
+    // is the site at 1D index i open?
+    private boolean isOpen(int i) {
+        return (open.get(i >>> 6) & (1L << i)) != 0;
+    }
+
+    // parent link of a packed entry
+    private static int parent(long entry) {
+        return (int) (entry & PARENT_MASK);
+    }
+
+    // rank of a packed entry
+    private static int rank(long entry) {
+        return (int) (entry >>> 32);
+    }
+
+    // packs a parent link and a rank into one entry
+    private static long pack(int parent, int rank) {
+        return (long) rank << 32 | parent;
+    }
+
+    // finds the root of i, halving the path with CAS; a failed CAS only means
+    // another thread already moved the link further up
+    private int find(int i) {
+        while (true) {
+            long entry = uf.get(i);
+            int p = parent(entry);
+            if (p == i) return i;
+            int gp = parent(uf.get(p));
+            if (gp != p) uf.compareAndSet(i, entry, pack(gp, rank(entry)));
+            i = gp;
+        }
+    }
+
+    // are i and j in the same component? A root read twice without change
+    // shows that the components were distinct at that instant
+    private boolean connected(int i, int j) {
+        while (true) {
+            int ri = find(i);
+            int rj = find(j);
+            if (ri == rj) return true;
+            if (parent(uf.get(ri)) == ri) return false;
+        }
+    }
+
+    // links the components of i and j; the root with the smaller
+    // (rank, index) goes under the other, and a tie bumps the new root's rank
+    private void union(int i, int j) {
+        while (true) {
+            int ri = find(i);
+            int rj = find(j);
+            if (ri == rj) return;
+
+            long ei = uf.get(ri);
+            long ej = uf.get(rj);
+            if (parent(ei) != ri || parent(ej) != rj) continue; // no longer roots
+
+            int ki = rank(ei);
+            int kj = rank(ej);
+            if (ki > kj || (ki == kj && ri > rj)) {
+                // swaps so that ri is the root to link under rj
+                int tempRoot = ri;
+                ri = rj;
+                rj = tempRoot;
+                long tempEntry = ei;
+                ei = ej;
+                ej = tempEntry;
+                int tempRank = ki;
+                ki = kj;
+                kj = tempRank;
+            }
+
+            if (uf.compareAndSet(ri, ei, pack(rj, ki))) {
+                if (ki == kj) uf.compareAndSet(rj, ej, pack(rj, kj + 1));
+                return;
+            }
+        }
+    }
+
+    // converts a (row, col) location to a 1D index
+    private int to1D(int row, int col) {
+        return n * row + col;
+    }
+
+    // checks if a given (row, col) resides within the system grid
+    private void checkValidLocation(int row, int col) {
+        if (row < 0 || row >= n || col < 0 || col >= n)
+            throw new IllegalArgumentException("Invalid (row, col) index");
+    }
+
+    // opens random sites of an n-by-n grid from the given number of threads
+    // until it percolates, and returns the open() calls per second
+    private static double throughput(int n, int threads, long seed)
+            throws InterruptedException {
+        ConcurrentPercolation p = new ConcurrentPercolation(n);
+        LongAdder calls = new LongAdder();
+        SplittableRandom master = new SplittableRandom(seed);
+
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            SplittableRandom rng = master.split();
+            workers[t] = new Thread(() -> {
+                while (!p.percolates()) {
+                    for (int k = 0; k < 1024; k++)
+                        p.open(rng.nextInt(n), rng.nextInt(n));
+                    calls.add(1024);
+                }
+            });
+        }
+
+        Stopwatch s = new Stopwatch();
+        for (Thread w : workers) w.start();
+        for (Thread w : workers) w.join();
+        return calls.sum() / s.elapsedTime();
+    }
+
+    // unit testing; with arguments n and maxThreads, also reports how open()
+    // throughput scales from 1 to maxThreads threads
+    public static void main(String[] args) throws InterruptedException {
+        ConcurrentPercolation p = new ConcurrentPercolation(4);
+
+        StdOut.println(p.to1D(2, 2)); // 10
+        StdOut.println(p.isOpen(2, 2)); // false
+        p.open(2, 2);
+        StdOut.println(p.isOpen(2, 2)); // true
+        StdOut.println(p.connected(10, 6)); // false
+        p.open(1, 2);
+        StdOut.println(p.connected(10, 6)); // true
+        StdOut.println(p.isFull(2, 2)); // false
+        StdOut.println(p.percolates()); // false
+        StdOut.println(p.numberOfOpenSites()); // 2
+        p.open(0, 2);
+        p.open(3, 2);
+        StdOut.println(p.numberOfOpenSites()); // 4
+        StdOut.println(p.isFull(2, 2)); // true
+        StdOut.println(p.isFull(3, 2)); // true
+        StdOut.println(p.percolates()); // true
+
+        if (args.length < 2) return;
+        int n = Integer.parseInt(args[0]);
+        int maxThreads = Integer.parseInt(args[1]);
+        for (int threads = 1; threads <= maxThreads; threads *= 2)
+            StdOut.printf("%d threads\t= %.0f open()/sec\n", threads,
+                          throughput(n, threads, 226));
+    }
+}
@@ -0,0 +1,218 @@
+/* *****************************************************************************
+ *  Name:    Nick Padmanabhan
+ *  NetID:   ntyp
+ *  Precept: P07
+ *
+ *  Description: Topology of a percolation lattice for LatticePercolation.
+ *  Sites are laid out row-major in a box that is padded with one blocked
+ *  layer on every side, so every site has all of its neighbors at fixed
+ *  offsets and the open() loop needs no boundary checks. Axis 0 runs from
+ *  the top (water source) to the bottom (water terminus).
+ *
+ *  Bond percolation on the square lattice is mapped onto site percolation
+ *  on a (2n - 1)-by-(2n - 1) grid with a node for every vertex (always
+ *  open) and every bond (opened by the caller).
+ *
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdOut;
+
+public abstract class Lattice {
+
+    private final int[] dims; // extent along each axis, without padding
+    private final int[] strides; // padded stride of each axis
+    private final int[] offsets; // neighbor offsets in the padded layout
+    private final int nodes; // number of padded nodes
+
+    // creates a padded box with the given extents and neighbor deltas, one
+    // {d0, d1, ...} coordinate delta per neighbor
+    private Lattice(int[] dims, int[][] deltas) {
+        this.dims = dims.clone();
+        strides = new int[dims.length];
+
+        long total = 1;
+        for (int axis = dims.length - 1; axis >= 0; axis--) {
+            if (dims[axis] <= 0) throw new IllegalArgumentException("n must be a positive integer!");
+            strides[axis] = (int) total;
+            total *= dims[axis] + 2;
+        }
+        if (total + 2 > Integer.MAX_VALUE) throw new IllegalArgumentException("lattice is too large");
+        nodes = (int) total;
+
+        offsets = new int[deltas.length];
+        for (int k = 0; k < deltas.length; k++)
+            for (int axis = 0; axis < dims.length; axis++)
+                offsets[k] += deltas[k][axis] * strides[axis];
+    }
+
+    // n-by-n square lattice with 4 neighbors per site
+    public static Lattice square(int n) {
+        return new Box("square", new int[] { n, n },
+                       new int[][] { { -1, 0 }, { 1, 0 }, { 0, -1 }, { 0, 1 } });
+    }
+
+    // n-by-n triangular lattice with 6 neighbors per site, in axial
+    // coordinates (each row is shifted half a site from the one above)
+    public static Lattice triangular(int n) {
+        return new Box("triangular", new int[] { n, n },
+                       new int[][] {
+                               { -1, 0 }, { 1, 0 }, { 0, -1 }, { 0, 1 }, { -1, 1 }, { 1, -1 }
+                       });
+    }
+
+    // n-by-n-by-n simple cubic lattice with 6 neighbors per site
+    public static Lattice cubic(int n) {
+        return new Box("cubic", new int[] { n, n, n },
+                       new int[][] {
+                               { -1, 0, 0 }, { 1, 0, 0 }, { 0, -1, 0 },
+                               { 0, 1, 0 }, { 0, 0, -1 }, { 0, 0, 1 }
+                       });
+    }
+
+    // bonds of the n-by-n square lattice: the n * (n - 1) horizontal bonds
+    // row by row, then the (n - 1) * n vertical bonds row by row
+    public static Lattice bondSquare(int n) {
+        if (n < 2) throw new IllegalArgumentException("n must be at least 2");
+        return new Bond(n);
+    }
+
+    // number of sites (or bonds) that can be opened
+    public abstract int size();
+
+    // padded node of the given site
+    abstract int node(int site);
+
+    // nodes that are open from the start
+    int[] fixedNodes() {
+        return new int[0];
+    }
+
+    // number of padded nodes
+    int nodes() {
+        return nodes;
+    }
+
+    // neighbor offsets in the padded layout
+    int[] offsets() {
+        return offsets.clone();
+    }
+
+    // number of neighbors per site
+    public int degree() {
+        return offsets.length;
+    }
+
+    // is the node in the top layer?
+    boolean isTop(int node) {
+        return node / strides[0] == 1;
+    }
+
+    // is the node in the bottom layer?
+    boolean isBottom(int node) {
+        return node / strides[0] == dims[0];
+    }
+
+    // converts a row-major index into the unpadded box to a padded node
+    int pad(int index) {
+        int node = 0;
+        for (int axis = dims.length - 1; axis >= 0; axis--) {
+            node += (index % dims[axis] + 1) * strides[axis];
+            index /= dims[axis];
+        }
+        return node;
+    }
+
+    // checks that site is a valid site index
+    void checkValidSite(int site) {
+        if (site < 0 || site >= size()) throw new IllegalArgumentException("Invalid site index");
+    }
+
+    // site lattice whose sites are the cells of the box
+    private static class Box extends Lattice {
+        private final String name; // lattice name
+        private final int size; // number of sites
+
+        public Box(String name, int[] dims, int[][] deltas) {
+            super(dims, deltas);
+            this.name = name;
+            long total = 1;
+            for (int d : dims) total *= d;
+            size = (int) total;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        int node(int site) {
+            checkValidSite(site);
+            return pad(site);
+        }
+
+        public String toString() {
+            return name;
+        }
+    }
+
+    // bond lattice mapped onto a decorated square grid: vertex (r, c) sits at
+    // (2r, 2c), the bond to its right at (2r, 2c + 1) and the bond below it
+    // at (2r + 1, 2c); cells (2r + 1, 2c + 1) are never opened
+    private static class Bond extends Lattice {
+        private final int n; // vertices per side
+
+        public Bond(int n) {
+            super(new int[] { 2 * n - 1, 2 * n - 1 },
+                  new int[][] { { -1, 0 }, { 1, 0 }, { 0, -1 }, { 0, 1 } });
+            this.n = n;
+        }
+
+        public int size() {
+            return 2 * n * (n - 1);
+        }
+
+        int node(int bond) {
+            checkValidSite(bond);
+            int width = 2 * n - 1;
+            int horizontal = n * (n - 1);
+            if (bond < horizontal) {
+                int r = bond / (n - 1);
+                int c = bond % (n - 1);
+                return pad(2 * r * width + 2 * c + 1);
+            }
+            bond -= horizontal;
+            int r = bond / n;
+            int c = bond % n;
+            return pad((2 * r + 1) * width + 2 * c);
+        }
+
+        int[] fixedNodes() {
+            int width = 2 * n - 1;
+            int[] vertices = new int[n * n];
+            for (int r = 0; r < n; r++)
+                for (int c = 0; c < n; c++)
+                    vertices[r * n + c] = pad(2 * r * width + 2 * c);
+            return vertices;
+        }
+
+        public String toString() {
+            return "bond";
+        }
+    }
+
+    // unit testing
+    public static void main(String[] args) {
+        Lattice square = Lattice.square(3);
+        StdOut.println(square.size()); // 9
+        StdOut.println(square.node(0)); // 6 (row 1, col 1 of the 5-by-5 padding)
+        StdOut.println(square.isTop(square.node(2))); // true
+        StdOut.println(square.isBottom(square.node(6))); // true
+
+        Lattice cubic = Lattice.cubic(3);
+        StdOut.println(cubic.size()); // 27
+        StdOut.println(cubic.degree()); // 6
+
+        Lattice bond = Lattice.bondSquare(3);
+        StdOut.println(bond.size()); // 12
+        StdOut.println(bond.fixedNodes().length); // 9
+    }
+}
@@ -0,0 +1,119 @@
+/* *****************************************************************************
+ *  Name:    Nick Padmanabhan
+ *  NetID:   ntyp
+ *  Precept: P07
+ *
+ *  Description: Percolation on any Lattice topology (square, triangular,
+ *  cubic or bond), on the same union-find core as Percolation. Sites are
+ *  addressed by index; open() walks the lattice's precomputed neighbor
+ *  offsets over a padded grid, so it needs no boundary checks and does not
+ *  allocate.
+ *
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdOut;
+
+public class LatticePercolation {
+
+    private final Lattice lattice; // topology
+    private final int[] offsets; // neighbor offsets in the padded layout
+    private final boolean[] system; // padded open/blocked nodes
+    private final PercolationUF uf; // union-find (optionally instrumented)
+    private final int top; // virtual water source
+    private final int bottom; // virtual water terminus
+    private int numOpenSites = 0; // keeps track of the number of open sites
+
+    // creates a lattice with all sites initially blocked
+    public LatticePercolation(Lattice lattice) {
+        if (lattice == null) throw new IllegalArgumentException("lattice is null!");
+
+        this.lattice = lattice;
+        offsets = lattice.offsets();
+        system = new boolean[lattice.nodes()];
+        uf = new PercolationUF(lattice.nodes() + 2);
+        top = lattice.nodes();
+        bottom = lattice.nodes() + 1;
+
+        // nodes open from the start (the vertices of a bond lattice)
+        for (int i : lattice.fixedNodes()) link(i);
+    }
+
+    // opens the site if it is not open already
+    public void open(int site) {
+        int i = lattice.node(site);
+        if (system[i]) return;
+        link(i);
+        numOpenSites++;
+    }
+
+    // opens node i and links it to its open neighbors and the virtual sites
+    private void link(int i) {
+        system[i] = true;
+        for (int offset : offsets)
+            if (system[i + offset]) uf.union(i, i + offset);
+
+        if (lattice.isTop(i)) uf.union(i, top); // link to source
+        if (lattice.isBottom(i)) uf.union(i, bottom); // link to terminus
+    }
+
+    // is the site open?
+    public boolean isOpen(int site) {
+        return system[lattice.node(site)];
+    }
+
+    // is the site full?
+    public boolean isFull(int site) {
+        int i = lattice.node(site);
+        return system[i] && uf.connected(i, top);
+    }
+
+    // returns the number of open sites
+    public int numberOfOpenSites() {
+        return numOpenSites;
+    }
+
+    // does the system percolate?
+    public boolean percolates() {
+        return uf.connected(top, bottom);
+    }
+
+    // returns the lattice
+    public Lattice lattice() {
+        return lattice;
+    }
+
+    // returns a snapshot of the union-find counters; all zero unless run
+    // with -Dpercolation.metrics=true
+    public PercolationMetrics metrics() {
+        return uf.metrics();
+    }
+
+    // unit testing
+    public static void main(String[] args) {
+        // same scenario as Percolation.main()
+        LatticePercolation p = new LatticePercolation(Lattice.square(4));
+        p.open(10); // (2, 2)
+        p.open(6); // (1, 2)
+        StdOut.println(p.isFull(10)); // false
+        StdOut.println(p.numberOfOpenSites()); // 2
+        p.open(2); // (0, 2)
+        p.open(14); // (3, 2)
+        StdOut.println(p.isFull(14)); // true
+        StdOut.println(p.percolates()); // true
+
+        // a column of the cubic lattice
+        LatticePercolation c = new LatticePercolation(Lattice.cubic(3));
+        c.open(4);
+        c.open(13);
+        StdOut.println(c.percolates()); // false
+        c.open(22);
+        StdOut.println(c.percolates()); // true
+
+        // two vertical bonds join the top and bottom rows of a 3-by-3 grid
+        LatticePercolation b = new LatticePercolation(Lattice.bondSquare(3));
+        b.open(6); // (0, 0) - (1, 0)
+        StdOut.println(b.percolates()); // false
+        b.open(9); // (1, 0) - (2, 0)
+        StdOut.println(b.percolates()); // true
+    }
+}
@@ -9,12 +9,11 @@
  **************************************************************************** */
 
 import edu.princeton.cs.algs4.StdOut;
-import edu.princeton.cs.algs4.WeightedQuickUnionUF;
 
 public class Percolation {
 
     private boolean[] system; // grid representing the open/blocked slots
-    private final WeightedQuickUnionUF uf; // union-find library
+    private final PercolationUF uf; // union-find (optionally instrumented)
     private final int n;  // number of rows and columns in the grid
     private int numOpenSites = 0; // keeps track of the number of open sites
 
@@ -25,7 +24,7 @@ public class Percolation {
         // uf has +2 indices for the virtual sites
         // location n * n is the water source
         // location n * n + 1 is the water terminus
-        uf = new WeightedQuickUnionUF(n * n + 2);
+        uf = new PercolationUF(n * n + 2);
         // n-by-n grid mapped/represented by a 1D array of n*n indices
         system = new boolean[n * n];
         this.n = n;
@@ -80,6 +79,12 @@ public class Percolation {
         return uf.connected(n * n, n * n + 1);
     }
 
+    // returns a snapshot of the union-find counters; all zero unless run
+    // with -Dpercolation.metrics=true
+    public PercolationMetrics metrics() {
+        return uf.metrics();
+    }
+
     // converts a (row, col) location to a 1D index
     private int to1D(int row, int col) {
         return n * row + col;
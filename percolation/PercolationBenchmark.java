@@ -0,0 +1,80 @@
+/* *****************************************************************************
+ *  Name:    Nick Padmanabhan
+ *  NetID:   ntyp
+ *  Precept: P07
+ *
+ *  Description: Compares the heap footprint and open() throughput of
+ *  Percolation and CompactPercolation. Both are driven by the same seeded
+ *  sequence of random sites until the system percolates.
+ *
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdOut;
+import edu.princeton.cs.algs4.Stopwatch;
+
+import java.util.SplittableRandom;
+
+public class PercolationBenchmark {
+
+    // returns the bytes currently in use on the heap, after a few GC hints
+    private static long usedMemory() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    // opens random sites of an n-by-n Percolation until it percolates and
+    // prints the memory used and the number of open() calls per second
+    private static void benchPercolation(int n, long seed) {
+        long before = usedMemory();
+        Percolation p = new Percolation(n);
+        long bytes = usedMemory() - before;
+
+        SplittableRandom rng = new SplittableRandom(seed);
+        long calls = 0;
+        Stopwatch s = new Stopwatch();
+        while (!p.percolates()) {
+            p.open(rng.nextInt(n), rng.nextInt(n));
+            calls++;
+        }
+        double runtime = s.elapsedTime();
+
+        report("Percolation", n, bytes, calls, runtime);
+    }
+
+    // same as benchPercolation(), for CompactPercolation
+    private static void benchCompact(int n, long seed) {
+        long before = usedMemory();
+        CompactPercolation p = new CompactPercolation(n);
+        long bytes = usedMemory() - before;
+
+        SplittableRandom rng = new SplittableRandom(seed);
+        long calls = 0;
+        Stopwatch s = new Stopwatch();
+        while (!p.percolates()) {
+            p.open(rng.nextInt(n), rng.nextInt(n));
+            calls++;
+        }
+        double runtime = s.elapsedTime();
+
+        report("CompactPercolation", n, bytes, calls, runtime);
+    }
+
+    // prints one line of results
+    private static void report(String name, int n, long bytes, long calls,
+                               double runtime) {
+        StdOut.printf("%-20s bytes/site = %6.2f   open() calls = %d   "
+                              + "open()/sec = %.0f\n",
+                      name, (double) bytes / ((long) n * n), calls,
+                      calls / runtime);
+    }
+
+    // usage: java PercolationBenchmark n [seed]; run with a large -Xmx
+    public static void main(String[] args) {
+        int n = Integer.parseInt(args[0]);
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 226;
+
+        benchPercolation(n, seed);
+        benchCompact(n, seed);
+    }
+}
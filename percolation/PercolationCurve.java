@@ -0,0 +1,161 @@
+/* *****************************************************************************
+ *  Name:    Nick Padmanabhan
+ *  NetID:   ntyp
+ *  Precept: P07
+ *
+ *  Description: Estimates the whole percolation curve in a single pass per
+ *  trial (Newman-Ziff). Each trial shuffles all sites once and opens them in
+ *  that order, recording whether the system percolates and the size of the
+ *  largest cluster after every open site.
+ *
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdOut;
+import edu.princeton.cs.algs4.Stopwatch;
+
+import java.util.SplittableRandom;
+
+public class PercolationCurve {
+
+    private final int n; // number of rows and columns in the grid
+    private final int trials; // number of trials
+    private final int[] percolating; // trials percolating after k open sites
+    private final double[] largest; // summed largest-cluster sizes after k open sites
+
+    // perform independent single-pass trials on an n-by-n grid; trial i draws
+    // from its own SplittableRandom stream seeded from seed
+    public PercolationCurve(int n, int trials, long seed) {
+        if (n <= 0 || trials <= 0) throw new IllegalArgumentException("n and T must be > 0");
+
+        this.n = n;
+        this.trials = trials;
+        percolating = new int[n * n + 1];
+        largest = new double[n * n + 1];
+
+        int[] order = new int[n * n]; // order in which the sites are opened
+        int[] cluster = new int[n * n]; // parent links; roots hold -size
+        SplittableRandom master = new SplittableRandom(seed);
+
+        for (int t = 0; t < trials; t++) {
+            shuffle(order, new SplittableRandom(master.nextLong()));
+
+            // k at which this trial first percolates
+            int threshold = trial(order, cluster);
+            percolating[threshold]++;
+        }
+
+        // cumulates the first-percolation counts into the curve
+        for (int k = 1; k <= n * n; k++) percolating[k] += percolating[k - 1];
+    }
+
+    // opens every site in the given order, adding the largest cluster size
+    // after each step to largest[], and returns the number of open sites at
+    // which the system first percolated
+    private int trial(int[] order, int[] cluster) {
+        Percolation p = new Percolation(n);
+        int threshold = -1;
+        int max = 0; // size of the largest cluster so far
+
+        for (int k = 1; k <= n * n; k++) {
+            int i = order[k - 1];
+            int row = i / n;
+            int col = i % n;
+            p.open(row, col);
+
+            // merges the new site with its open neighbors
+            cluster[i] = -1;
+            int root = i;
+            if (row > 0 && p.isOpen(row - 1, col)) root = union(cluster, root, i - n); // up
+            if (row < n - 1 && p.isOpen(row + 1, col)) root = union(cluster, root, i + n); // down
+            if (col > 0 && p.isOpen(row, col - 1)) root = union(cluster, root, i - 1); // left
+            if (col < n - 1 && p.isOpen(row, col + 1)) root = union(cluster, root, i + 1); // right
+            max = Math.max(max, -cluster[root]);
+            largest[k] += max;
+
+            if (threshold == -1 && p.percolates()) threshold = k;
+        }
+
+        return threshold;
+    }
+
+    // links the cluster containing j with the one rooted at root, by size,
+    // and returns the root of the merged cluster
+    private static int union(int[] cluster, int root, int j) {
+        int r = find(cluster, j);
+        if (r == root) return root;
+
+        // the smaller cluster goes under the larger
+        if (cluster[root] > cluster[r]) {
+            int temp = root;
+            root = r;
+            r = temp;
+        }
+        cluster[root] += cluster[r];
+        cluster[r] = root;
+        return root;
+    }
+
+    // finds the root of i, halving the path along the way
+    private static int find(int[] cluster, int i) {
+        while (cluster[i] >= 0) {
+            if (cluster[cluster[i]] >= 0) cluster[i] = cluster[cluster[i]];
+            i = cluster[i];
+        }
+        return i;
+    }
+
+    // Fisher-Yates shuffle of 0 .. a.length - 1 into a
+    private static void shuffle(int[] a, SplittableRandom rng) {
+        for (int i = 0; i < a.length; i++) {
+            int j = rng.nextInt(i + 1);
+            a[i] = a[j];
+            a[j] = i;
+        }
+    }
+
+    // number of sites in the grid
+    public int size() {
+        return n * n;
+    }
+
+    // fraction of trials that percolate once k sites are open
+    public double percolationProbability(int k) {
+        checkValidCount(k);
+        return (double) percolating[k] / trials;
+    }
+
+    // mean size of the largest cluster, as a fraction of all sites, once k
+    // sites are open
+    public double largestClusterFraction(int k) {
+        checkValidCount(k);
+        return largest[k] / trials / (n * n);
+    }
+
+    // checks that k is a valid number of open sites
+    private void checkValidCount(int k) {
+        if (k < 0 || k > n * n) throw new IllegalArgumentException("Invalid k");
+    }
+
+    // test client; prints the curve at a number of evenly spaced points
+    public static void main(String[] args) {
+        int n = Integer.parseInt(args[0]);
+        int t = Integer.parseInt(args[1]);
+        int points = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+        if (points <= 0) throw new IllegalArgumentException("points must be > 0");
+
+        Stopwatch s = new Stopwatch();
+        PercolationCurve curve = new PercolationCurve(n, t, seed);
+        double runtime = s.elapsedTime();
+
+        StdOut.println("p\t\tP(percolates)\tlargest cluster");
+        for (int j = 0; j <= points; j++) {
+            int k = (int) ((long) curve.size() * j / points);
+            StdOut.printf("%.4f\t\t%.6f\t%.6f\n", (double) k / curve.size(),
+                          curve.percolationProbability(k),
+                          curve.largestClusterFraction(k));
+        }
+        StdOut.println("elapsed time\t\t= " + runtime);
+        StdOut.println("seed\t\t\t= " + seed);
+    }
+}
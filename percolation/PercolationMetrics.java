@@ -0,0 +1,118 @@
+/* *****************************************************************************
+ *  Name:    Nick Padmanabhan
+ *  NetID:   ntyp
+ *  Precept: P07
+ *
+ *  Description: Union-find counters for Percolation and PercolationStats:
+ *  unions performed, find calls, a histogram of find path lengths and the
+ *  number of redundant samples of already-open sites. Counting is switched
+ *  on with -Dpercolation.metrics=true; ENABLED is a compile-time constant to
+ *  the JIT, so with counting off the guarded code is removed entirely.
+ *
+ **************************************************************************** */
+
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+public class PercolationMetrics implements PercolationMetricsMXBean {
+
+    // is counting switched on?
+    public static final boolean ENABLED = Boolean.getBoolean("percolation.metrics");
+
+    // longest path length with its own histogram bucket
+    public static final int MAX_PATH_LENGTH = 32;
+
+    private long unions; // union() calls that linked two components
+    private long finds; // find() calls
+    private long redundantOpens; // samples of already-open sites
+    private final long[] pathLengths = new long[MAX_PATH_LENGTH + 1]; // histogram
+
+    // creates an empty set of counters
+    public PercolationMetrics() {
+    }
+
+    // creates counters with the given values
+    PercolationMetrics(long unions, long finds, long redundantOpens,
+                       long[] pathLengths) {
+        this.unions = unions;
+        this.finds = finds;
+        this.redundantOpens = redundantOpens;
+        System.arraycopy(pathLengths, 0, this.pathLengths, 0, this.pathLengths.length);
+    }
+
+    // adds the counters of that to these counters
+    public synchronized void add(PercolationMetrics that) {
+        PercolationMetrics other = that.snapshot();
+        unions += other.unions;
+        finds += other.finds;
+        redundantOpens += other.redundantOpens;
+        for (int i = 0; i <= MAX_PATH_LENGTH; i++) pathLengths[i] += other.pathLengths[i];
+    }
+
+    // adds k redundant samples
+    synchronized void addRedundantOpens(long k) {
+        redundantOpens += k;
+    }
+
+    // returns a copy of the current counters
+    public synchronized PercolationMetrics snapshot() {
+        return new PercolationMetrics(unions, finds, redundantOpens, pathLengths);
+    }
+
+    // number of union() calls that linked two components
+    public synchronized long getUnions() {
+        return unions;
+    }
+
+    // number of find() calls
+    public synchronized long getFinds() {
+        return finds;
+    }
+
+    // number of sampled sites that were already open
+    public synchronized long getRedundantOpens() {
+        return redundantOpens;
+    }
+
+    // histogram of find() path lengths; the last bucket holds longer paths
+    public synchronized long[] getPathLengthHistogram() {
+        return pathLengths.clone();
+    }
+
+    // mean find() path length
+    public synchronized double getMeanPathLength() {
+        if (finds == 0) return 0.0;
+        long total = 0;
+        for (int i = 0; i <= MAX_PATH_LENGTH; i++) total += i * pathLengths[i];
+        return (double) total / finds;
+    }
+
+    // registers these counters with the platform MBean server under the name
+    // of the given type, and returns that name; meant for long-lived counters,
+    // since the server keeps them reachable until they are unregistered
+    public String register(String type) {
+        String name = "percolation:type=" + type;
+        try {
+            ManagementFactory.getPlatformMBeanServer()
+                             .registerMBean(this, new ObjectName(name));
+        } catch (JMException e) {
+            throw new IllegalStateException("could not register " + name, e);
+        }
+        return name;
+    }
+
+    // returns a string representation of the counters
+    public synchronized String toString() {
+        StringBuilder s = new StringBuilder();
+        s.append("unions\t\t\t= ").append(unions).append('\n');
+        s.append("finds\t\t\t= ").append(finds).append('\n');
+        s.append("redundant opens\t\t= ").append(redundantOpens).append('\n');
+        s.append(String.format("mean path length\t= %.3f\n", getMeanPathLength()));
+        s.append("path lengths\t\t=");
+        int last = MAX_PATH_LENGTH;
+        while (last > 0 && pathLengths[last] == 0) last--;
+        for (int i = 0; i <= last; i++) s.append(' ').append(pathLengths[i]);
+        return s.toString();
+    }
+}
@@ -0,0 +1,26 @@
+/* *****************************************************************************
+ *  Name:    Nick Padmanabhan
+ *  NetID:   ntyp
+ *  Precept: P07
+ *
+ *  Description: JMX view of the union-find counters in PercolationMetrics.
+ *
+ **************************************************************************** */
+
+public interface PercolationMetricsMXBean {
+
+    // number of union() calls that linked two components
+    long getUnions();
+
+    // number of find() calls
+    long getFinds();
+
+    // number of sampled sites in PercolationStats that were already open
+    long getRedundantOpens();
+
+    // histogram of find() path lengths; the last bucket holds longer paths
+    long[] getPathLengthHistogram();
+
+    // mean find() path length
+    double getMeanPathLength();
+}
@@ -9,25 +9,39 @@
 
 import edu.princeton.cs.algs4.StdOut;
 import edu.princeton.cs.algs4.StdRandom;
-import edu.princeton.cs.algs4.StdStats;
 import edu.princeton.cs.algs4.Stopwatch;
 
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
 public class PercolationStats {
+    private static final int TASK_CUTOFF = 4; // trials per fork-join leaf task
+    private static final int MIN_TRIALS = 10; // trials before stopping early
     private final double CONFIDENCE_95 = 1.96;
-    private final int trials; // number of trials
-    private final double[] data; // stores the proportion data
+    private int trials = 0; // number of trials
+    private double mean = 0.0; // running mean of the proportions (Welford)
+    private double m2 = 0.0; // running sum of squared deviations (Welford)
+    private final PercolationMetrics metrics = new PercolationMetrics(); // counters
+
+    // counters summed over every PercolationStats, registered once as the
+    // MBean percolation:type=PercolationStats when counting is on
+    private static final PercolationMetrics TOTAL = new PercolationMetrics();
+
+    static {
+        if (PercolationMetrics.ENABLED) TOTAL.register("PercolationStats");
+    }
 
     // perform independent trials on an n-by-n grid
     public PercolationStats(int n, int trials) {
         if (n <= 0 || trials <= 0) throw new IllegalArgumentException("n and T must be > 0");
 
-        this.trials = trials;
-        data = new double[trials];
-
         Percolation p;
         for (int i = 0; i < trials; i++) {
             p = new Percolation(n);
             int randCell = StdRandom.uniform(n * n); // random cell
+            long redundant = 0; // samples of already-open cells
 
             while (true) {
                 int row = randCell / n;
@@ -37,42 +51,343 @@ public class PercolationStats {
                     p.open(row, col); // opens a cell if it's not open
                     if (p.percolates()) break; // breaks if the system percolates
                 }
+                else if (PercolationMetrics.ENABLED) redundant++;
 
                 randCell = StdRandom.uniform(n * n); // new random cell if the cell is already open
             }
 
-            data[i] = (double) p.numberOfOpenSites() / (n * n); // stores the open proportion
+            record((double) p.numberOfOpenSites() / (n * n)); // stores the open proportion
+            if (PercolationMetrics.ENABLED) {
+                PercolationMetrics m = new PercolationMetrics();
+                addMetrics(m, p.metrics(), redundant);
+                keep(m);
+            }
+        }
+    }
+
+    // perform independent trials on an n-by-n grid, spread over a fork-join
+    // pool of the given number of threads. Trial i draws from its own
+    // SplittableRandom stream seeded from seed, so the results are identical
+    // for any number of threads.
+    public PercolationStats(int n, int trials, long seed, int threads) {
+        if (n <= 0 || trials <= 0) throw new IllegalArgumentException("n and T must be > 0");
+        if (threads <= 0) throw new IllegalArgumentException("threads must be > 0");
+
+        // per-trial seeds are drawn up front, in trial order
+        long[] seeds = new long[trials];
+        SplittableRandom master = new SplittableRandom(seed);
+        for (int i = 0; i < trials; i++) seeds[i] = master.nextLong();
+
+        double[] data = new double[trials];
+        PercolationMetrics[] counters = trialMetrics(trials);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            pool.invoke(new TrialTask(n, null, seeds, data, counters, 0, trials));
+        } finally {
+            pool.shutdown();
+        }
+
+        // folds the results in trial order so the statistics are exact
+        // regardless of which thread finished first
+        for (int i = 0; i < trials; i++) {
+            record(data[i]);
+            if (PercolationMetrics.ENABLED) keep(counters[i]);
+        }
+    }
+
+    // perform independent trials on the given lattice, seeded and spread over
+    // threads as in PercolationStats(n, trials, seed, threads)
+    public PercolationStats(Lattice lattice, int trials, long seed, int threads) {
+        if (lattice == null) throw new IllegalArgumentException("lattice is null!");
+        if (trials <= 0) throw new IllegalArgumentException("n and T must be > 0");
+        if (threads <= 0) throw new IllegalArgumentException("threads must be > 0");
+
+        long[] seeds = new long[trials];
+        SplittableRandom master = new SplittableRandom(seed);
+        for (int i = 0; i < trials; i++) seeds[i] = master.nextLong();
+
+        double[] data = new double[trials];
+        PercolationMetrics[] counters = trialMetrics(trials);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            pool.invoke(new TrialTask(0, lattice, seeds, data, counters, 0, trials));
+        } finally {
+            pool.shutdown();
+        }
+
+        for (int i = 0; i < trials; i++) {
+            record(data[i]);
+            if (PercolationMetrics.ENABLED) keep(counters[i]);
+        }
+    }
+
+    // perform trials on an n-by-n grid until the 95% confidence interval
+    // has a half-width of at most halfWidth, or maxTrials trials have run.
+    // Trials run in batches on the given number of threads and are seeded
+    // as in the fixed-count constructor, so the first T trials (and hence the
+    // stopping point) are the same as for PercolationStats(n, T, seed, threads).
+    public PercolationStats(int n, double halfWidth, int maxTrials, long seed,
+                            int threads) {
+        if (n <= 0 || maxTrials <= 0) throw new IllegalArgumentException("n and T must be > 0");
+        if (!(halfWidth > 0)) throw new IllegalArgumentException("halfWidth must be > 0");
+        if (threads <= 0) throw new IllegalArgumentException("threads must be > 0");
+
+        int batch = threads * TASK_CUTOFF; // trials per round
+        long[] seeds = new long[batch];
+        double[] data = new double[batch];
+        PercolationMetrics[] counters = trialMetrics(batch);
+        SplittableRandom master = new SplittableRandom(seed);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            while (trials < maxTrials) {
+                int size = Math.min(batch, maxTrials - trials);
+                for (int i = 0; i < size; i++) seeds[i] = master.nextLong();
+                pool.invoke(new TrialTask(n, null, seeds, data, counters, 0, size));
+
+                // checks the stopping rule after every trial, in trial order;
+                // surplus trials of the last batch are discarded, counters
+                // and all
+                for (int i = 0; i < size; i++) {
+                    record(data[i]);
+                    if (PercolationMetrics.ENABLED) keep(counters[i]);
+                    if (trials >= MIN_TRIALS && halfWidth() <= halfWidth) return;
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // perform independent trials as in PercolationStats(n, trials, seed,
+    // threads), appending each finished batch of trials and their seeds to
+    // the binary log in logFile. Trials already in the log are skipped, so a
+    // stopped run resumes when restarted with the same arguments. The
+    // statistics are computed by streaming over the log.
+    public PercolationStats(int n, int trials, long seed, int threads,
+                            String logFile) {
+        if (n <= 0 || trials <= 0) throw new IllegalArgumentException("n and T must be > 0");
+        if (threads <= 0) throw new IllegalArgumentException("threads must be > 0");
+
+        long[] seeds = new long[trials];
+        SplittableRandom master = new SplittableRandom(seed);
+        for (int i = 0; i < trials; i++) seeds[i] = master.nextLong();
+
+        TrialLog log = new TrialLog(logFile, n, seed);
+        try {
+            // finds the trials that an earlier run already finished
+            boolean[] done = new boolean[trials];
+            log.rewind();
+            while (log.next()) {
+                int t = log.trial();
+                if (t >= trials) continue;
+                if (log.trialSeed() != seeds[t])
+                    throw new IllegalArgumentException("log does not match the seed");
+                done[t] = true;
+            }
+
+            int batch = threads * TASK_CUTOFF; // trials per round
+            int[] batchTrials = new int[batch];
+            long[] batchSeeds = new long[batch];
+            double[] data = new double[batch];
+            PercolationMetrics[] counters = trialMetrics(batch);
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                int next = 0; // next trial to consider
+                while (true) {
+                    int size = 0;
+                    for (; next < trials && size < batch; next++) {
+                        if (done[next]) continue;
+                        batchTrials[size] = next;
+                        batchSeeds[size++] = seeds[next];
+                    }
+                    if (size == 0) break;
+
+                    pool.invoke(new TrialTask(n, null, batchSeeds, data, counters, 0, size));
+                    for (int i = 0; i < size; i++) {
+                        log.append(batchTrials[i], batchSeeds[i], data[i]);
+                        if (PercolationMetrics.ENABLED) keep(counters[i]);
+                    }
+                    log.flush();
+                }
+            } finally {
+                pool.shutdown();
+            }
+
+            // streams over the log, counting each trial once
+            Arrays.fill(done, false);
+            log.rewind();
+            while (log.next()) {
+                int t = log.trial();
+                if (t >= trials || done[t]) continue;
+                done[t] = true;
+                record(log.result());
+            }
+        } finally {
+            log.close();
+        }
+    }
+
+    // adds the proportion of one trial to the running mean and variance
+    private void record(double x) {
+        trials++;
+        double delta = x - mean;
+        mean += delta / trials;
+        m2 += delta * (x - mean);
+    }
+
+    // runs a single trial on an n-by-n grid and returns the open proportion;
+    // its counters are added to metrics when counting is on
+    private static double trial(int n, SplittableRandom rng,
+                                PercolationMetrics metrics) {
+        Percolation p = new Percolation(n);
+        long redundant = 0; // samples of already-open cells
+
+        while (!p.percolates()) {
+            int randCell = rng.nextInt(n * n); // random cell
+            int row = randCell / n;
+            int col = randCell % n;
+            if (!p.isOpen(row, col)) p.open(row, col);
+            else if (PercolationMetrics.ENABLED) redundant++;
+        }
+
+        if (PercolationMetrics.ENABLED) addMetrics(metrics, p.metrics(), redundant);
+        return (double) p.numberOfOpenSites() / (n * n);
+    }
+
+    // runs a single trial on the given lattice and returns the open
+    // proportion; its counters are added to metrics when counting is on
+    private static double trial(Lattice lattice, SplittableRandom rng,
+                                PercolationMetrics metrics) {
+        LatticePercolation p = new LatticePercolation(lattice);
+        int size = lattice.size();
+        long redundant = 0; // samples of already-open sites
+
+        while (!p.percolates()) {
+            int site = rng.nextInt(size); // random site
+            if (!p.isOpen(site)) p.open(site);
+            else if (PercolationMetrics.ENABLED) redundant++;
+        }
+
+        if (PercolationMetrics.ENABLED) addMetrics(metrics, p.metrics(), redundant);
+        return (double) p.numberOfOpenSites() / size;
+    }
+
+    // returns one set of counters per trial slot of a batch, or null when
+    // counting is off
+    private static PercolationMetrics[] trialMetrics(int size) {
+        return PercolationMetrics.ENABLED ? new PercolationMetrics[size] : null;
+    }
+
+    // adds the counters of a kept trial to this instance's and to the total
+    private void keep(PercolationMetrics m) {
+        metrics.add(m);
+        TOTAL.add(m);
+    }
+
+    // adds the counters of a finished trial to metrics
+    private static void addMetrics(PercolationMetrics metrics, PercolationMetrics m,
+                                   long redundant) {
+        m.addRedundantOpens(redundant);
+        metrics.add(m);
+    }
+
+    // fork-join task that runs trials [lo, hi) and stores them in data
+    private static class TrialTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int n; // grid size
+        private final Lattice lattice; // topology, or null for an n-by-n Percolation
+        private final long[] seeds; // per-trial seeds
+        private final double[] data; // shared output array
+        private final PercolationMetrics[] metrics; // per-trial counters, or null
+        private final int lo; // first trial (inclusive)
+        private final int hi; // last trial (exclusive)
+
+        public TrialTask(int n, Lattice lattice, long[] seeds, double[] data,
+                         PercolationMetrics[] metrics, int lo, int hi) {
+            this.n = n;
+            this.lattice = lattice;
+            this.seeds = seeds;
+            this.data = data;
+            this.metrics = metrics;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        // splits the range in half until it is small enough to run directly
+        protected void compute() {
+            if (hi - lo <= TASK_CUTOFF) {
+                for (int i = lo; i < hi; i++) {
+                    SplittableRandom rng = new SplittableRandom(seeds[i]);
+                    PercolationMetrics m = null;
+                    if (metrics != null) m = metrics[i] = new PercolationMetrics();
+                    if (lattice == null) data[i] = trial(n, rng, m);
+                    else data[i] = trial(lattice, rng, m);
+                }
+                return;
+            }
+
+            int mid = lo + (hi - lo) / 2;
+            invokeAll(new TrialTask(n, lattice, seeds, data, metrics, lo, mid),
+                      new TrialTask(n, lattice, seeds, data, metrics, mid, hi));
         }
     }
 
     // sample mean of percolation threshold
     public double mean() {
-        return StdStats.mean(data);
+        return mean;
     }
 
     // sample standard deviation of percolation threshold
     public double stddev() {
         if (trials == 1) return Double.NaN;
-        return StdStats.stddev(data);
+        return Math.sqrt(m2 / (trials - 1));
     }
 
     // low endpoint of 95% confidence interval
     public double confidenceLow() {
-        return mean() - CONFIDENCE_95 * stddev() / Math.sqrt(trials);
+        return mean() - halfWidth();
     }
 
     // high endpoint of 95% confidence interval
     public double confidenceHigh() {
-        return mean() + CONFIDENCE_95 * stddev() / Math.sqrt(trials);
+        return mean() + halfWidth();
+    }
+
+    // number of trials performed
+    public int trials() {
+        return trials;
+    }
+
+    // union-find counters summed over all trials; all zero unless run with
+    // -Dpercolation.metrics=true
+    public PercolationMetrics metrics() {
+        return metrics.snapshot();
+    }
+
+    // half-width of the 95% confidence interval
+    private double halfWidth() {
+        return CONFIDENCE_95 * stddev() / Math.sqrt(trials);
     }
 
-    // test client
+    // test client; optional third and fourth arguments select the parallel
+    // mode with the given number of threads and seed, an optional fifth
+    // argument stops early once the 95% confidence interval is that narrow
+    // (T is then the trial budget), and an optional sixth argument logs
+    // trials to the given file instead, resuming from it if it exists
     public static void main(String[] args) {
         int n = Integer.parseInt(args[0]);
         int t = Integer.parseInt(args[1]);
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+        double halfWidth = args.length > 4 ? Double.parseDouble(args[4]) : 0.0;
 
         Stopwatch s = new Stopwatch();
-        PercolationStats ps = new PercolationStats(n, t);
+        PercolationStats ps;
+        if (args.length > 5) ps = new PercolationStats(n, t, seed, Math.max(threads, 1), args[5]);
+        else if (halfWidth > 0) ps = new PercolationStats(n, halfWidth, t, seed, Math.max(threads, 1));
+        else if (threads > 0) ps = new PercolationStats(n, t, seed, threads);
+        else ps = new PercolationStats(n, t);
         double runtime = s.elapsedTime();
 
         StdOut.printf("mean()\t\t\t= %.6f\n", ps.mean());
@@ -80,5 +395,10 @@ public class PercolationStats {
         StdOut.printf("confidenceLow()\t\t= %.6f\n", ps.confidenceLow());
         StdOut.printf("confidenceHigh()\t= %.6f\n", ps.confidenceHigh());
         StdOut.println("elapsed time\t\t= " + runtime);
+        if (runtime > 0) StdOut.printf("throughput\t\t= %.2f trials/sec\n", ps.trials() / runtime);
+        else StdOut.println("throughput\t\t= n/a (too fast to time)");
+        if (halfWidth > 0) StdOut.println("trials()\t\t= " + ps.trials());
+        if (threads > 0 || halfWidth > 0) StdOut.println("seed\t\t\t= " + seed);
+        if (PercolationMetrics.ENABLED) StdOut.println(ps.metrics());
     }
 }
@@ -0,0 +1,93 @@
+/* *****************************************************************************
+ *  Name:    Nick Padmanabhan
+ *  NetID:   ntyp
+ *  Precept: P07
+ *
+ *  Description: Weighted quick-union (as in algs4 WeightedQuickUnionUF) with
+ *  optional counters for unions, finds and find path lengths. The counters
+ *  are only touched when PercolationMetrics.ENABLED is set.
+ *
+ **************************************************************************** */
+
+public class PercolationUF {
+
+    private final int[] parent; // parent links
+    private final int[] size; // number of elements in the tree rooted at i
+    private int count; // number of components
+
+    private long unions; // union() calls that linked two components
+    private long finds; // find() calls
+    private final long[] pathLengths; // histogram of find() path lengths
+
+    // initializes n elements, each in its own component
+    public PercolationUF(int n) {
+        if (n < 0) throw new IllegalArgumentException("n is negative!");
+        count = n;
+        parent = new int[n];
+        size = new int[n];
+        for (int i = 0; i < n; i++) {
+            parent[i] = i;
+            size[i] = 1;
+        }
+        pathLengths = PercolationMetrics.ENABLED
+                      ? new long[PercolationMetrics.MAX_PATH_LENGTH + 1] : null;
+    }
+
+    // returns the number of components
+    public int count() {
+        return count;
+    }
+
+    // returns the root of the component containing p
+    public int find(int p) {
+        validate(p);
+        int length = 0; // links followed
+        while (p != parent[p]) {
+            p = parent[p];
+            if (PercolationMetrics.ENABLED) length++;
+        }
+
+        if (PercolationMetrics.ENABLED) {
+            finds++;
+            pathLengths[Math.min(length, PercolationMetrics.MAX_PATH_LENGTH)]++;
+        }
+        return p;
+    }
+
+    // are p and q in the same component?
+    public boolean connected(int p, int q) {
+        return find(p) == find(q);
+    }
+
+    // merges the components containing p and q, smaller under larger
+    public void union(int p, int q) {
+        int rootP = find(p);
+        int rootQ = find(q);
+        if (rootP == rootQ) return;
+
+        if (size[rootP] < size[rootQ]) {
+            parent[rootP] = rootQ;
+            size[rootQ] += size[rootP];
+        }
+        else {
+            parent[rootQ] = rootP;
+            size[rootP] += size[rootQ];
+        }
+        count--;
+
+        if (PercolationMetrics.ENABLED) unions++;
+    }
+
+    // returns a snapshot of the counters; all zero when counting is off
+    public PercolationMetrics metrics() {
+        if (!PercolationMetrics.ENABLED) return new PercolationMetrics();
+        return new PercolationMetrics(unions, finds, 0, pathLengths);
+    }
+
+    // checks that p is a valid element
+    private void validate(int p) {
+        if (p < 0 || p >= parent.length)
+            throw new IllegalArgumentException("index " + p + " is not between 0 and "
+                                                       + (parent.length - 1));
+    }
+}
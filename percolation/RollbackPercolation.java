@@ -0,0 +1,211 @@
+/* *****************************************************************************
+ *  Name:    Nick Padmanabhan
+ *  NetID:   ntyp
+ *  Precept: P07
+ *
+ *  Description: Version of Percolation with checkpoint()/rollback(), for
+ *  "what if these k extra sites were open?" queries against a base grid.
+ *  The union-find links by rank and never compresses paths, so every open()
+ *  made after a checkpoint can be undone from a log in O(1) per change, and
+ *  a scenario costs time proportional to k rather than to n^2.
+ *
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdOut;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+public class RollbackPercolation {
+
+    private static final int OPEN = 0; // log entry: a site was opened
+    private static final int LINK = 1; // log entry: a root was linked
+    private static final int LINK_RANK = 2; // log entry: a root was linked and
+                                            // the new root's rank went up
+
+    private final boolean[] system; // grid representing the open/blocked slots
+    private final int[] parent; // union-find parent links
+    private final byte[] rank; // union-find ranks of the roots
+    private final int n;  // number of rows and columns in the grid
+    private int numOpenSites = 0; // keeps track of the number of open sites
+
+    private long[] log = new long[16]; // undo log of (index << 2 | kind) entries
+    private int logSize = 0; // number of entries in the log
+    private int[] checkpoints = new int[4]; // log sizes at each checkpoint
+    private int numCheckpoints = 0; // number of active checkpoints
+
+    // creates n-by-n grid, with all sites initially blocked
+    public RollbackPercolation(int n) {
+        if (n <= 0) throw new IllegalArgumentException("n must be a positive integer!");
+
+        // location n * n is the water source
+        // location n * n + 1 is the water terminus
+        parent = new int[n * n + 2];
+        for (int i = 0; i < n * n + 2; i++) parent[i] = i;
+        rank = new byte[n * n + 2];
+        system = new boolean[n * n];
+        this.n = n;
+    }
+
+    // opens the site (row, col) if it is not open already
+    public void open(int row, int col) {
+        checkValidLocation(row, col);
+        int i = to1D(row, col);
+
+        // checks if the site is already open
+        if (system[i]) return;
+
+        // opens the site
+        system[i] = true;
+        numOpenSites++;
+        record(i, OPEN);
+
+        // links to adjacent open sites
+        if (row > 0 && system[i - n]) union(i, i - n); // up
+        if (row < n - 1 && system[i + n]) union(i, i + n); // down
+        if (col > 0 && system[i - 1]) union(i, i - 1); // left
+        if (col < n - 1 && system[i + 1]) union(i, i + 1); // right
+
+        // links to the water source/terminus sites if the cell is on the
+        // top or bottom rows
+        if (row == 0) union(i, n * n); // link to source
+        if (row == n - 1) union(i, n * n + 1); // link to terminus
+    }
+
+    // is the site (row, col) open?
+    public boolean isOpen(int row, int col) {
+        checkValidLocation(row, col);
+        return system[to1D(row, col)];
+    }
+
+    // is the site (row, col) full?
+    public boolean isFull(int row, int col) {
+        checkValidLocation(row, col);
+        return find(to1D(row, col)) == find(n * n);
+    }
+
+    // returns the number of open sites
+    public int numberOfOpenSites() {
+        return numOpenSites;
+    }
+
+    // does the system percolate?
+    public boolean percolates() {
+        return find(n * n) == find(n * n + 1);
+    }
+
+    // marks the current state; checkpoints nest
+    public void checkpoint() {
+        if (numCheckpoints == checkpoints.length)
+            checkpoints = Arrays.copyOf(checkpoints, 2 * numCheckpoints);
+        checkpoints[numCheckpoints++] = logSize;
+    }
+
+    // undoes every open() since the most recent checkpoint and removes it
+    public void rollback() {
+        if (numCheckpoints == 0) throw new NoSuchElementException("No checkpoint!");
+
+        int mark = checkpoints[--numCheckpoints];
+        while (logSize > mark) {
+            long entry = log[--logSize];
+            int i = (int) (entry >>> 2);
+            int kind = (int) (entry & 3);
+
+            if (kind == OPEN) {
+                system[i] = false;
+                numOpenSites--;
+            }
+            else {
+                if (kind == LINK_RANK) rank[parent[i]]--;
+                parent[i] = i;
+            }
+        }
+    }
+
+    // keeps the changes made since the most recent checkpoint and removes it
+    public void release() {
+        if (numCheckpoints == 0) throw new NoSuchElementException("No checkpoint!");
+        numCheckpoints--;
+        if (numCheckpoints == 0) logSize = 0;
+    }
+
+    // appends an entry to the undo log; nothing is logged outside a checkpoint
+    private void record(int i, int kind) {
+        if (numCheckpoints == 0) return;
+        if (logSize == log.length) log = Arrays.copyOf(log, 2 * logSize);
+        log[logSize++] = (long) i << 2 | kind;
+    }
+
+    // finds the root of i; paths are never compressed so links can be undone
+    private int find(int i) {
+        while (parent[i] != i) i = parent[i];
+        return i;
+    }
+
+    // links the components of i and j by rank
+    private void union(int i, int j) {
+        int ri = find(i);
+        int rj = find(j);
+        if (ri == rj) return;
+
+        if (rank[ri] > rank[rj]) {
+            int temp = ri;
+            ri = rj;
+            rj = temp;
+        }
+
+        // ri goes under rj
+        parent[ri] = rj;
+        if (rank[ri] == rank[rj]) {
+            rank[rj]++;
+            record(ri, LINK_RANK);
+        }
+        else record(ri, LINK);
+    }
+
+    // converts a (row, col) location to a 1D index
+    private int to1D(int row, int col) {
+        return n * row + col;
+    }
+
+    // checks if a given (row, col) resides within the system grid
+    private void checkValidLocation(int row, int col) {
+        if (row < 0 || row >= n || col < 0 || col >= n)
+            throw new IllegalArgumentException("Invalid (row, col) index");
+    }
+
+    // unit testing
+    public static void main(String[] args) {
+        RollbackPercolation p = new RollbackPercolation(4);
+
+        p.open(0, 2);
+        p.open(1, 2);
+        StdOut.println(p.isFull(1, 2)); // true
+        StdOut.println(p.percolates()); // false
+
+        // what if (2, 2) and (3, 2) were open?
+        p.checkpoint();
+        p.open(2, 2);
+        p.open(3, 2);
+        StdOut.println(p.numberOfOpenSites()); // 4
+        StdOut.println(p.percolates()); // true
+        p.rollback();
+
+        StdOut.println(p.numberOfOpenSites()); // 2
+        StdOut.println(p.isOpen(2, 2)); // false
+        StdOut.println(p.isFull(1, 2)); // true
+        StdOut.println(p.percolates()); // false
+
+        // nested scenarios
+        p.checkpoint();
+        p.open(2, 2);
+        p.checkpoint();
+        p.open(3, 2);
+        StdOut.println(p.percolates()); // true
+        p.rollback();
+        StdOut.println(p.isFull(2, 2)); // true
+        StdOut.println(p.percolates()); // false
+        p.release();
+        StdOut.println(p.numberOfOpenSites()); // 3
+    }
+}
@@ -0,0 +1,277 @@
+/* *****************************************************************************
+ *  Name:    Nick Padmanabhan
+ *  NetID:   ntyp
+ *  Precept: P07
+ *
+ *  Description: Checks whether a fixed open/blocked configuration percolates
+ *  and counts its clusters, reading the grid one row at a time
+ *  (Hoshen-Kopelman). Only two rows of cluster labels are kept, so memory is
+ *  O(n) and grids far larger than the heap can be checked from disk.
+ *
+ *  Input format: the grid size n, followed by n rows of n characters each,
+ *  '1' for an open site and '0' for a blocked one. Whitespace is ignored.
+ *
+ **************************************************************************** */
+
+import edu.princeton.cs.algs4.StdOut;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+public class StreamingPercolation {
+
+    private static final int BUFFER_SIZE = 1 << 16; // bytes read at a time
+
+    private final InputStream in; // grid source
+    private final byte[] buffer = new byte[BUFFER_SIZE]; // read buffer
+    private int bufferLength = 0; // valid bytes in buffer
+    private int bufferPos = 0; // next unread byte in buffer
+
+    private final int n; // number of rows and columns in the grid
+    private long numOpenSites = 0; // number of open sites
+    private long numClusters = 0; // number of clusters
+    private long largestCluster = 0; // size of the largest cluster
+    private boolean percolates = false; // does the grid percolate?
+
+    // scans the grid from the given stream; the stream is not closed
+    public StreamingPercolation(InputStream in) {
+        this(in, false);
+    }
+
+    // scans the grid from the given file
+    public StreamingPercolation(String filename) {
+        this(open(filename), true);
+    }
+
+    // scans the grid from the given stream, then closes it if asked to, even
+    // when the input is malformed
+    private StreamingPercolation(InputStream in, boolean close) {
+        if (in == null) throw new IllegalArgumentException("in is null!");
+        this.in = in;
+        try {
+            n = readSize();
+            scan();
+        } finally {
+            if (close) close();
+        }
+    }
+
+    // labels the grid row by row, merging the labels of the previous row
+    // with the sites of the current row in a union-find over 2n entries:
+    // entry L < n is label L of the previous row and entry n + c is site c
+    // of the current row
+    private void scan() {
+        boolean[] row = new boolean[n]; // open sites of the current row
+        int[] prevLabel = new int[n]; // labels of the previous row, -1 if blocked
+        int[] curLabel = new int[n]; // labels of the current row
+        boolean[] prevTop = new boolean[n]; // does label L touch the top row?
+        boolean[] curTop = new boolean[n];
+        long[] prevSize = new long[n]; // number of sites with label L
+        long[] curSize = new long[n];
+        int prevCount = 0; // number of labels in the previous row
+        Arrays.fill(prevLabel, -1);
+
+        int[] parent = new int[2 * n]; // union-find links
+        boolean[] top = new boolean[2 * n]; // per-root top flags
+        long[] size = new long[2 * n]; // per-root sizes
+        int[] id = new int[2 * n]; // per-root new label, -1 if unassigned
+
+        for (int r = 0; r < n; r++) {
+            readRow(row);
+
+            for (int i = 0; i < 2 * n; i++) {
+                parent[i] = i;
+                top[i] = false;
+                size[i] = 0;
+                id[i] = -1;
+            }
+
+            // links the open sites to their left and upper neighbors
+            for (int c = 0; c < n; c++) {
+                if (!row[c]) continue;
+                numOpenSites++;
+                if (c > 0 && row[c - 1]) union(parent, n + c, n + c - 1); // left
+                if (prevLabel[c] >= 0) union(parent, n + c, prevLabel[c]); // up
+            }
+
+            // gathers the size and top flag of each merged cluster
+            for (int label = 0; label < prevCount; label++) {
+                int root = find(parent, label);
+                top[root] |= prevTop[label];
+                size[root] += prevSize[label];
+            }
+            int curCount = 0;
+            for (int c = 0; c < n; c++) {
+                if (!row[c]) {
+                    curLabel[c] = -1;
+                    continue;
+                }
+                int root = find(parent, n + c);
+                if (r == 0) top[root] = true;
+                size[root]++;
+                if (id[root] == -1) id[root] = curCount++;
+                curLabel[c] = id[root];
+            }
+
+            // clusters of the previous row that do not reach this row are done
+            for (int label = 0; label < prevCount; label++) {
+                int root = find(parent, label);
+                if (id[root] != -1) continue;
+                id[root] = -2; // counted
+                numClusters++;
+                largestCluster = Math.max(largestCluster, size[root]);
+            }
+
+            // carries the merged clusters over to the next row
+            for (int c = 0; c < n; c++) {
+                if (!row[c]) continue;
+                int root = find(parent, n + c);
+                curTop[id[root]] = top[root];
+                curSize[id[root]] = size[root];
+            }
+
+            int[] tempLabel = prevLabel;
+            prevLabel = curLabel;
+            curLabel = tempLabel;
+            boolean[] tempTop = prevTop;
+            prevTop = curTop;
+            curTop = tempTop;
+            long[] tempSize = prevSize;
+            prevSize = curSize;
+            curSize = tempSize;
+            prevCount = curCount;
+        }
+
+        // the clusters that reach the bottom row
+        for (int label = 0; label < prevCount; label++) {
+            numClusters++;
+            largestCluster = Math.max(largestCluster, prevSize[label]);
+            if (prevTop[label]) percolates = true;
+        }
+    }
+
+    // finds the root of i, halving the path along the way
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    // links the components of i and j
+    private static void union(int[] parent, int i, int j) {
+        int ri = find(parent, i);
+        int rj = find(parent, j);
+        if (ri != rj) parent[ri] = rj;
+    }
+
+    // reads the grid size
+    private int readSize() {
+        int b = nextNonSpace();
+        int size = 0;
+        while (b >= '0' && b <= '9') {
+            if (size > (Integer.MAX_VALUE - 9) / 10)
+                throw new IllegalArgumentException("n is too large!");
+            size = 10 * size + (b - '0');
+            b = read();
+        }
+        if (size <= 0) throw new IllegalArgumentException("n must be a positive integer!");
+
+        // the union-find arrays hold 2n entries
+        if (size > Integer.MAX_VALUE / 2)
+            throw new IllegalArgumentException("n is too large!");
+        return size;
+    }
+
+    // reads the next n sites into row
+    private void readRow(boolean[] row) {
+        for (int c = 0; c < n; c++) {
+            int b = nextNonSpace();
+            if (b == '1') row[c] = true;
+            else if (b == '0') row[c] = false;
+            else throw new IllegalArgumentException("expected '0' or '1' in the grid");
+        }
+    }
+
+    // returns the next byte that is not whitespace, or -1 at the end
+    private int nextNonSpace() {
+        int b = read();
+        while (b == ' ' || b == '\n' || b == '\r' || b == '\t') b = read();
+        return b;
+    }
+
+    // returns the next byte of input, or -1 at the end
+    private int read() {
+        if (bufferPos == bufferLength) {
+            try {
+                bufferLength = in.read(buffer, 0, BUFFER_SIZE);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            bufferPos = 0;
+            if (bufferLength <= 0) {
+                bufferLength = 0;
+                return -1;
+            }
+        }
+        return buffer[bufferPos++];
+    }
+
+    // opens the given file for reading
+    private static InputStream open(String filename) {
+        if (filename == null) throw new IllegalArgumentException("filename is null!");
+        try {
+            return new FileInputStream(filename);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("could not open " + filename, e);
+        }
+    }
+
+    // closes the input stream
+    private void close() {
+        try {
+            in.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // number of rows and columns in the grid
+    public int size() {
+        return n;
+    }
+
+    // returns the number of open sites
+    public long numberOfOpenSites() {
+        return numOpenSites;
+    }
+
+    // returns the number of clusters of open sites
+    public long numberOfClusters() {
+        return numClusters;
+    }
+
+    // returns the number of sites in the largest cluster
+    public long largestCluster() {
+        return largestCluster;
+    }
+
+    // does the system percolate?
+    public boolean percolates() {
+        return percolates;
+    }
+
+    // test client; reads the grid from the given file
+    public static void main(String[] args) {
+        StreamingPercolation sp = new StreamingPercolation(args[0]);
+        StdOut.println("n\t\t\t= " + sp.size());
+        StdOut.println("numberOfOpenSites()\t= " + sp.numberOfOpenSites());
+        StdOut.println("numberOfClusters()\t= " + sp.numberOfClusters());
+        StdOut.println("largestCluster()\t= " + sp.largestCluster());
+        StdOut.println("percolates()\t\t= " + sp.percolates());
+    }
+}
@@ -0,0 +1,166 @@
+/* *****************************************************************************
+ *  Name:    Nick Padmanabhan
+ *  NetID:   ntyp
+ *  Precept: P07
+ *
+ *  Description: Append-only binary log of PercolationStats trials, so that a
+ *  long run can be restarted without repeating finished trials.
+ *
+ *  Layout (big-endian): a 20-byte header of magic, version, n and master
+ *  seed, followed by one 20-byte record per trial: the trial number, the
+ *  seed of its SplittableRandom stream and its open proportion. A partial
+ *  record left by a crash is cut off when the log is reopened, and so is a
+ *  partial header, as long as its bytes are the start of the expected one.
+ *
+ **************************************************************************** */
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+public class TrialLog {
+
+    private static final int MAGIC = 0x50435354; // "PCST"
+    private static final int VERSION = 1; // log format version
+    private static final int FORMAT_BYTES = 8; // magic, version
+    private static final int HEADER_BYTES = 20; // magic, version, n, seed
+    private static final int RECORD_BYTES = 20; // trial, seed, result
+    private static final int BUFFER_RECORDS = 4096; // records per read/write
+
+    private final FileChannel channel; // log file
+    private final ByteBuffer buffer; // write buffer, then read buffer
+
+    private long readPos; // file position of the next unread record
+    private int trial; // trial number of the current record
+    private long trialSeed; // seed of the current record
+    private double result; // open proportion of the current record
+
+    // opens the log in the given file for an n-by-n grid and master seed,
+    // creating it if needed; throws an IllegalArgumentException if the file
+    // holds a log for a different n or seed
+    public TrialLog(String filename, int n, long seed) {
+        if (filename == null) throw new IllegalArgumentException("filename is null!");
+        buffer = ByteBuffer.allocateDirect(BUFFER_RECORDS * RECORD_BYTES);
+
+        try {
+            channel = FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE,
+                                       StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long size = channel.size();
+
+            if (size < HEADER_BYTES) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                header.putInt(MAGIC).putInt(VERSION).putInt(n).putLong(seed).flip();
+
+                // new (or torn) log: writes a fresh header, unless the bytes
+                // present are not the start of that header
+                ByteBuffer present = ByteBuffer.allocate((int) size);
+                while (present.hasRemaining())
+                    if (channel.read(present, present.position()) < 0) break;
+                for (int i = 0; i < size; i++) {
+                    if (present.get(i) == header.get(i)) continue;
+                    if (i < FORMAT_BYTES)
+                        throw new IllegalArgumentException(filename + " is not a trial log");
+                    throw new IllegalArgumentException(filename + " is a log for a different n or seed");
+                }
+
+                channel.truncate(0);
+                while (header.hasRemaining()) channel.write(header, header.position());
+                channel.force(true);
+            }
+            else {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                while (header.hasRemaining())
+                    if (channel.read(header, header.position()) < 0) break;
+                header.flip();
+                if (header.getInt() != MAGIC || header.getInt() != VERSION)
+                    throw new IllegalArgumentException(filename + " is not a trial log");
+                if (header.getInt() != n || header.getLong() != seed)
+                    throw new IllegalArgumentException(filename + " is a log for a different n or seed");
+
+                // cuts off a partial record left by a crash
+                long records = (size - HEADER_BYTES) / RECORD_BYTES;
+                channel.truncate(HEADER_BYTES + records * RECORD_BYTES);
+            }
+            channel.position(channel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // appends a record; it reaches the file on the next flush()
+    public void append(int trialNumber, long seed, double proportion) {
+        if (buffer.remaining() < RECORD_BYTES) flush();
+        buffer.putInt(trialNumber).putLong(seed).putDouble(proportion);
+    }
+
+    // writes the buffered records and forces them to disk
+    public void flush() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) channel.write(buffer);
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.clear();
+    }
+
+    // moves the record cursor back to the first record; call after flush()
+    public void rewind() {
+        readPos = HEADER_BYTES;
+        buffer.clear().flip();
+    }
+
+    // advances the cursor to the next record; returns false at the end
+    public boolean next() {
+        if (buffer.remaining() < RECORD_BYTES) {
+            buffer.compact();
+            try {
+                while (buffer.hasRemaining()) {
+                    int read = channel.read(buffer, readPos);
+                    if (read <= 0) break;
+                    readPos += read;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            buffer.flip();
+            if (buffer.remaining() < RECORD_BYTES) {
+                buffer.clear();
+                return false;
+            }
+        }
+
+        trial = buffer.getInt();
+        trialSeed = buffer.getLong();
+        result = buffer.getDouble();
+        return true;
+    }
+
+    // trial number of the current record
+    public int trial() {
+        return trial;
+    }
+
+    // seed of the SplittableRandom stream of the current record
+    public long trialSeed() {
+        return trialSeed;
+    }
+
+    // open proportion of the current record
+    public double result() {
+        return result;
+    }
+
+    // closes the log file
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}